@@ -0,0 +1,47 @@
+package tictactoe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// One full AI decision (GameAI.getBestMove) per AILevel and board geometry
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AIBenchmark {
+    @Param({"3x3k3", "15x15k5"})
+    public String board;
+
+    @Param({"EASY", "MEDIUM", "HARD", "MCTS"})
+    public AILevel level;
+
+    private MnkBoard[] positions;
+    private SplittableRandom random;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        positions = PositionCorpus.midGame(board, 3);
+        random = new SplittableRandom(4);
+    }
+
+    @Benchmark
+    public int getBestMove() {
+        MnkBoard position = positions[index++ & (PositionCorpus.SIZE - 1)];
+        return GameAI.getBestMove(level, position, PositionCorpus.toMove(position), random);
+    }
+}
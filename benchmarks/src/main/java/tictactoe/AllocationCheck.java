@@ -0,0 +1,105 @@
+package tictactoe;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+// Asserts that an AI decision allocates nothing in steady state. After a
+// warm-up so the JIT has compiled the path, it measures this thread's
+// allocated bytes across many GameAI.getBestMove calls for every AILevel and
+// board geometry, and exits non-zero if any combination allocated at all.
+// MCTS is left out: it builds a fresh search tree per decision by design.
+// Two more paths are checked the same way: recording a decision in
+// GameMetrics, JFR event included, since that is meant to stay on in
+// production, and publishing on a GameEventBus, which the game does on every
+// move.
+//
+// No Maven phase runs it (it takes a minute or so of warm-up and measuring);
+// run it by hand after changing any of these paths:
+//
+//   mvn -B package && java -cp benchmarks/target/benchmarks.jar tictactoe.AllocationCheck
+public final class AllocationCheck {
+    private static final int WARMUP = 200_000;
+    private static final int DECISIONS = 1_000_000;
+
+    private AllocationCheck() {
+    }
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        boolean failed = false;
+        for (String geometry : new String[]{"3x3k3", "4x4k4", "15x15k5"}) {
+            MnkBoard[] positions = PositionCorpus.midGame(geometry, 5);
+            SplittableRandom random = new SplittableRandom(6);
+            for (AILevel level : AILevel.values()) {
+                if (level == AILevel.MCTS) continue;
+                decide(level, positions, random, WARMUP);
+                long before = threads.getThreadAllocatedBytes(threadId);
+                int checksum = decide(level, positions, random, DECISIONS);
+                long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+                // getThreadAllocatedBytes itself may allocate a few bytes, so anything under one byte per
+                // thousand decisions counts as zero
+                boolean ok = allocated < DECISIONS / 1000;
+                failed |= !ok;
+                System.out.printf("%-8s %-7s %.4f bytes/decision %s (checksum %d)%n",
+                    geometry, level, (double) allocated / DECISIONS, ok ? "OK" : "FAIL", checksum);
+            }
+        }
+        failed |= !checkMetrics(threads, threadId);
+        failed |= !checkEventBus(threads, threadId);
+        if (failed) System.exit(1);
+    }
+
+    private static boolean checkMetrics(com.sun.management.ThreadMXBean threads, long threadId) {
+        MnkBoard position = PositionCorpus.midGame("3x3k3", 7)[0];
+        GameMetrics metrics = GameMetrics.get();
+        // The JFR event is only scalar-replaced in C2 code, so warm up with many calls: the measured
+        // call must enter an already compiled method, not an interpreted loop waiting for OSR
+        for (int i = 0; i < 100; i++) {
+            recordDecisions(metrics, position, WARMUP / 10);
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        recordDecisions(metrics, position, DECISIONS);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        boolean ok = allocated < DECISIONS / 1000;
+        System.out.printf("%-16s %.4f bytes/decision %s%n", "GameMetrics", (double) allocated / DECISIONS, ok ? "OK" : "FAIL");
+        return ok;
+    }
+
+    private static void recordDecisions(GameMetrics metrics, MnkBoard position, int decisions) {
+        for (int i = 0; i < decisions; i++) {
+            AIDecisionEvent event = new AIDecisionEvent();
+            event.begin();
+            // Same cycle of values in warm-up and measurement, so no untaken branch deoptimizes mid-run
+            metrics.recordDecision(event, AILevel.HARD, position, i & 7, 0, 0, i & 1023, (i & 1023) * 1000L);
+        }
+    }
+
+    private static boolean checkEventBus(com.sun.management.ThreadMXBean threads, long threadId) {
+        GameEventBus bus = new GameEventBus();
+        for (int i = 0; i < 100; i++) {
+            publishEvents(bus, WARMUP / 10);
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        publishEvents(bus, DECISIONS);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        boolean ok = allocated < DECISIONS / 1000;
+        System.out.printf("%-16s %.4f bytes/event %s%n", "GameEventBus", (double) allocated / DECISIONS, ok ? "OK" : "FAIL");
+        return ok;
+    }
+
+    private static void publishEvents(GameEventBus bus, int count) {
+        for (int i = 0; i < count; i++) {
+            bus.publish(GameEvent.Type.MOVE_PLAYED, i >> 4, (i & 1) == 0 ? 'X' : 'O', i & 7, i & 15, 3, 3, 3, null, AILevel.HARD);
+        }
+    }
+
+    private static int decide(AILevel level, MnkBoard[] positions, SplittableRandom random, int decisions) {
+        int checksum = 0;
+        for (int i = 0; i < decisions; i++) {
+            MnkBoard position = positions[i & (PositionCorpus.SIZE - 1)];
+            checksum += GameAI.getBestMove(level, position, PositionCorpus.toMove(position), random);
+        }
+        return checksum;
+    }
+}
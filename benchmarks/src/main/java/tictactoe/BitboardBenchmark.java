@@ -0,0 +1,66 @@
+package tictactoe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// 3x3 bitboard paths: checkWinForPlayer's mask test, the win probe behind
+// findWinningMove, and the perfect-play lookup and solver behind HARD
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BitboardBenchmark {
+    private Board[] positions;
+    private char[] toMove;
+    private Solver solver;
+    private PerfectPlayTable table;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        MnkBoard[] corpus = PositionCorpus.midGame("3x3k3", 1);
+        positions = new Board[corpus.length];
+        toMove = new char[corpus.length];
+        for (int i = 0; i < corpus.length; i++) {
+            positions[i] = corpus[i].toBoard();
+            toMove[i] = PositionCorpus.toMove(corpus[i]);
+        }
+        solver = new Solver();
+        table = PerfectPlayTable.get();
+    }
+
+    @Benchmark
+    public boolean checkWinForPlayer() {
+        int i = index++ & (PositionCorpus.SIZE - 1);
+        return positions[i].hasWon(toMove[i]);
+    }
+
+    @Benchmark
+    public int findWinningCell() {
+        int i = index++ & (PositionCorpus.SIZE - 1);
+        return positions[i].findWinningCell(toMove[i]);
+    }
+
+    @Benchmark
+    public int perfectPlayLookup() {
+        return table.bestMove(positions[index++ & (PositionCorpus.SIZE - 1)]);
+    }
+
+    @Benchmark
+    public int solverBestMove() {
+        int i = index++ & (PositionCorpus.SIZE - 1);
+        return solver.bestMove(positions[i], toMove[i]);
+    }
+}
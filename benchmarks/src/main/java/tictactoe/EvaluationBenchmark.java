@@ -0,0 +1,69 @@
+package tictactoe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Evaluations per second of PatternEvaluator the way IterativeSearch uses it
+// at a leaf (play a move, evaluate, take it back) against working the same
+// score out by rescanning every window of the board.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+    @Param({"7x7k5", "15x15k5", "19x19k5"})
+    public String board;
+
+    private MnkBoard[] positions;
+    private PatternEvaluator[] evaluators;
+    private int[] moves;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        positions = PositionCorpus.midGame(board, 5);
+        evaluators = new PatternEvaluator[PositionCorpus.SIZE];
+        moves = new int[PositionCorpus.SIZE];
+        MoveList nearby = new MoveList(positions[0].cellCount());
+        for (int i = 0; i < PositionCorpus.SIZE; i++) {
+            evaluators[i] = new PatternEvaluator(positions[i]);
+            positions[i].generateNearbyMoves(nearby, 2);
+            moves[i] = nearby.get(i % nearby.size());
+        }
+    }
+
+    @Benchmark
+    public int incremental() {
+        int i = index++ & (PositionCorpus.SIZE - 1);
+        PatternEvaluator evaluator = evaluators[i];
+        char player = PositionCorpus.toMove(positions[i]);
+        evaluator.play(moves[i], player);
+        int score = evaluator.evaluate(player);
+        evaluator.undo(moves[i], player);
+        return score;
+    }
+
+    @Benchmark
+    public int rescan() {
+        int i = index++ & (PositionCorpus.SIZE - 1);
+        MnkBoard position = positions[i];
+        char player = PositionCorpus.toMove(position);
+        position.play(moves[i], player);
+        int score = evaluators[i].rescan(position, player);
+        position.undo(moves[i]);
+        return score;
+    }
+}
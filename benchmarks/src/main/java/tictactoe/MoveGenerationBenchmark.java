@@ -0,0 +1,48 @@
+package tictactoe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveGenerationBenchmark {
+    @Param({"3x3k3", "4x4k4", "15x15k5"})
+    public String board;
+
+    private MnkBoard[] positions;
+    private MoveList moves;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        positions = PositionCorpus.midGame(board, 2);
+        moves = new MoveList(positions[0].cellCount());
+    }
+
+    @Benchmark
+    public int findWinningMove() {
+        MnkBoard position = positions[index++ & (PositionCorpus.SIZE - 1)];
+        return GameAI.findWinningMove(position, PositionCorpus.toMove(position));
+    }
+
+    @Benchmark
+    public int getAvailableMoves() {
+        GameAI.getAvailableMoves(positions[index++ & (PositionCorpus.SIZE - 1)], moves);
+        return moves.size();
+    }
+}
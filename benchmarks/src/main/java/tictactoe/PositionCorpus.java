@@ -0,0 +1,43 @@
+package tictactoe;
+
+import java.util.SplittableRandom;
+
+// Deterministic sets of realistic mid-game positions for the benchmarks: random
+// games stopped part-way through, never at a finished position.
+final class PositionCorpus {
+    static final int SIZE = 1024;
+
+    private PositionCorpus() {
+    }
+
+    // Parses "<rows>x<cols>k<k>" as used by the benchmark @Param values (JMH splits -p values on commas)
+    static int[] geometry(String spec) {
+        String[] parts = spec.split("[xk]");
+        return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2])};
+    }
+
+    static MnkBoard[] midGame(String spec, long seed) {
+        int[] g = geometry(spec);
+        SplittableRandom random = new SplittableRandom(seed);
+        MnkBoard[] positions = new MnkBoard[SIZE];
+        int filled = 0;
+        while (filled < SIZE) {
+            MnkBoard board = new MnkBoard(g[0], g[1], g[2]);
+            // Stop somewhere in the first two thirds of the board, past the opening
+            int target = 2 + random.nextInt(Math.max(1, board.cellCount() * 2 / 3 - 2));
+            char player = 'X';
+            boolean over = false;
+            while (board.moveCount() < target && !over) {
+                board.play(GameAI.getBestMove(AILevel.EASY, board, player, random), player);
+                over = board.completesLine(board.lastMove(), player) || board.isFull();
+                player = (player == 'X') ? 'O' : 'X';
+            }
+            if (!over) positions[filled++] = board;
+        }
+        return positions;
+    }
+
+    static char toMove(MnkBoard board) {
+        return (board.moveCount() & 1) == 0 ? 'X' : 'O';
+    }
+}
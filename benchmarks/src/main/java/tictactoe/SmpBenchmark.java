@@ -0,0 +1,84 @@
+package tictactoe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Time-to-depth of ParallelSearch against thread count. Not a JMH benchmark:
+// the figure that matters is how long the group takes to finish a fixed
+// depth on the same positions, relative to one thread.
+//
+// Each position of the corpus is searched to the given depth with an emptied
+// table, once per thread count; the speedup is the one-thread time over the
+// N-thread time, summed over the set. Threads beyond the number of cores can
+// only share the cores there are, so expect the speedup to level off there.
+// Helpers get a pool of their own, as in AIService, sized for the most threads.
+//
+//   java -cp benchmarks/target/benchmarks.jar tictactoe.SmpBenchmark [board 15x15k5] [depth 4] [positions 16] [max threads: cores]
+public final class SmpBenchmark {
+    private static final int TABLE_SLOTS = 1 << 20;
+
+    private SmpBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        String spec = args.length > 0 ? args[0] : "15x15k5";
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int count = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int maxThreads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        MnkBoard[] corpus = PositionCorpus.midGame(spec, 9);
+        List<MnkBoard> positions = new ArrayList<>();
+        for (int i = 0; i < count && i < corpus.length; i++) positions.add(corpus[i]);
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) threadCounts.add(threads);
+        threadCounts.add(maxThreads);
+
+        TranspositionTable table = new TranspositionTable(TABLE_SLOTS);
+        ExecutorService helpers = Executors.newFixedThreadPool(Math.max(1, maxThreads - 1));
+        try {
+            run(helpers, table, spec, depth, positions, threadCounts);
+        } finally {
+            helpers.shutdown();
+        }
+    }
+
+    private static void run(ExecutorService helpers, TranspositionTable table, String spec, int depth,
+                            List<MnkBoard> positions, List<Integer> threadCounts) {
+        // Warm up so one thread isn't timed in the interpreter
+        for (MnkBoard position : positions.subList(0, Math.min(4, positions.size()))) {
+            table.clear();
+            timeToDepth(helpers, table, position, 1, depth);
+        }
+
+        System.out.printf("%s, %d positions to depth %d, %d cores%n", spec, positions.size(), depth,
+            Runtime.getRuntime().availableProcessors());
+        System.out.printf("%7s %12s %9s %14s %12s %12s%n", "Threads", "Time ms", "Speedup", "Nodes", "Nodes/s", "Same move");
+        double baseNanos = 0;
+        int[] baseMoves = new int[positions.size()];
+        for (int threads : threadCounts) {
+            long nanos = 0;
+            long nodes = 0;
+            int same = 0;
+            for (int i = 0; i < positions.size(); i++) {
+                table.clear();
+                long start = System.nanoTime();
+                SearchResult result = timeToDepth(helpers, table, positions.get(i), threads, depth);
+                nanos += System.nanoTime() - start;
+                nodes += result.nodes;
+                if (threads == 1) baseMoves[i] = result.move;
+                if (result.move == baseMoves[i]) same++;
+            }
+            if (threads == 1) baseNanos = nanos;
+            System.out.printf("%7d %,12.1f %8.2fx %,14d %,12.0f %8d/%d%n", threads, nanos / 1e6, baseNanos / nanos,
+                nodes, nodes / (nanos / 1e9), same, positions.size());
+        }
+    }
+
+    private static SearchResult timeToDepth(ExecutorService helpers, TranspositionTable table, MnkBoard position,
+                                            int threads, int depth) {
+        ParallelSearch search = new ParallelSearch(helpers, table, threads, 0, 0);
+        search.limitDepth(depth);
+        return search.search(position, PositionCorpus.toMove(position), -1);
+    }
+}
@@ -0,0 +1,104 @@
+package tictactoe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Solve rate and speed of ThreatSearch on positions from decided games. Not a
+// JMH benchmark: what matters is how many positions are solved, not just time.
+//
+// MEDIUM plays itself until a game is won; the positions 1, 3, 5, ... plies
+// before the winning move, with the eventual winner to move, form the set.
+// Not all of them are forced wins (the loser may simply have blundered
+// later), so the rates are comparative: the same positions and the same node
+// budget are given to IterativeSearch, which must prove the win by brute
+// force. Nodes/s counts the search alone; building the window tables for a
+// position is reported separately as setup.
+//
+//   java -cp benchmarks/target/benchmarks.jar tictactoe.ThreatSearchBenchmark [board 15x15k5] [nodes 20000] [games 100]
+public final class ThreatSearchBenchmark {
+    private static final int MAX_DISTANCE = 15;
+
+    private ThreatSearchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        String spec = args.length > 0 ? args[0] : "15x15k5";
+        long nodeBudget = args.length > 1 ? Long.parseLong(args[1]) : 20_000;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int[] g = PositionCorpus.geometry(spec);
+        List<List<MnkBoard>> byDistance = positions(g, games, new SplittableRandom(11));
+
+        // Warm up so the first bucket isn't timed in the interpreter
+        for (int round = 0; round < 20; round++) {
+            for (MnkBoard position : byDistance.get(MAX_DISTANCE / 2)) {
+                new ThreatSearch(position, nodeBudget).findWin(PositionCorpus.toMove(position));
+            }
+        }
+
+        System.out.printf("%s, %,d decided games, node budget %,d per position%n", spec, games, nodeBudget);
+        System.out.printf("%6s %9s %10s %10s %12s %12s %10s %12s%n",
+            "Plies", "Positions", "VCF found", "Avg nodes", "Nodes/s", "Setup us", "Search won", "Search ms");
+        long totalNodes = 0;
+        long totalNanos = 0;
+        for (int distance = 1; distance <= MAX_DISTANCE; distance += 2) {
+            List<MnkBoard> positions = byDistance.get(distance / 2);
+            if (positions.isEmpty()) continue;
+            int solved = 0;
+            int searchSolved = 0;
+            long nodes = 0;
+            long nanos = 0;
+            long setupNanos = 0;
+            long searchNanos = 0;
+            for (MnkBoard position : positions) {
+                char player = PositionCorpus.toMove(position);
+                long start = System.nanoTime();
+                ThreatSearch threats = new ThreatSearch(position, nodeBudget);
+                long built = System.nanoTime();
+                if (threats.findWin(player) >= 0) solved++;
+                setupNanos += built - start;
+                nanos += System.nanoTime() - built;
+                nodes += threats.nodes();
+
+                start = System.nanoTime();
+                SearchResult result = new IterativeSearch(position, 0, nodeBudget).search(player, -1);
+                searchNanos += System.nanoTime() - start;
+                if (result.score >= IterativeSearch.WIN_SCORE - IterativeSearch.MAX_DEPTH) searchSolved++;
+            }
+            totalNodes += nodes;
+            totalNanos += nanos;
+            System.out.printf("%6d %,9d %9.1f%% %,10d %,12.0f %,12d %9.1f%% %12.2f%n", distance, positions.size(),
+                100.0 * solved / positions.size(), nodes / positions.size(), nodes / (nanos / 1e9),
+                setupNanos / 1000 / positions.size(),
+                100.0 * searchSolved / positions.size(), searchNanos / 1e6 / positions.size());
+        }
+        System.out.printf("Overall %,.0f threat-search nodes/s%n", totalNodes / (totalNanos / 1e9));
+    }
+
+    // Positions of the decided games, bucketed by plies until the winning move
+    private static List<List<MnkBoard>> positions(int[] g, int games, SplittableRandom random) {
+        List<List<MnkBoard>> byDistance = new ArrayList<>();
+        for (int distance = 1; distance <= MAX_DISTANCE; distance += 2) {
+            byDistance.add(new ArrayList<>());
+        }
+        MnkBoard board = new MnkBoard(g[0], g[1], g[2]);
+        int[] moves = new int[board.cellCount()];
+        int decided = 0;
+        while (decided < games) {
+            char winner = SelfPlay.playGame(board, AILevel.MEDIUM, AILevel.MEDIUM, random, moves);
+            if (winner == ' ') continue;
+            decided++;
+            int length = board.moveCount();
+            for (int distance = 1; distance <= MAX_DISTANCE && distance <= length; distance += 2) {
+                MnkBoard position = new MnkBoard(g[0], g[1], g[2]);
+                char player = 'X';
+                for (int i = 0; i < length - distance; i++) {
+                    position.play(moves[i], player);
+                    player = (player == 'X') ? 'O' : 'X';
+                }
+                byDistance.get(distance / 2).add(position);
+            }
+        }
+        return byDistance;
+    }
+}
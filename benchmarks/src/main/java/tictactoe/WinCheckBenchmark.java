@@ -0,0 +1,58 @@
+package tictactoe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Win detection as used by Main.checkWin and Tic.haveWon: only the lines through the last move
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WinCheckBenchmark {
+    @Param({"3x3k3", "4x4k4", "15x15k5"})
+    public String board;
+
+    private MnkBoard[] positions;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        positions = PositionCorpus.midGame(board, 1);
+    }
+
+    private MnkBoard next() {
+        return positions[index++ & (PositionCorpus.SIZE - 1)];
+    }
+
+    @Benchmark
+    public int[] checkWin() {
+        MnkBoard position = next();
+        return position.winningCells(position.lastMove());
+    }
+
+    @Benchmark
+    public boolean ticHaveWon() {
+        MnkBoard position = next();
+        int last = position.lastMove();
+        return Tic.haveWon(position, position.row(last), position.col(last));
+    }
+
+    @Benchmark
+    public boolean completesLine() {
+        MnkBoard position = next();
+        return position.completesLine(position.lastMove(), position.get(position.lastMove()));
+    }
+}
@@ -0,0 +1,40 @@
+package tictactoe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// One JFR event per AI decision; its duration is the time spent choosing the
+// move. Filled in and committed by GameMetrics.recordDecision. While no
+// recording has the event enabled, shouldCommit() is false and nothing is
+// written; the event object itself does not escape, so the JIT removes it.
+@Name("tictactoe.AIDecision")
+@Label("AI Decision")
+@Category("Tic-Tac-Toe")
+@Description("Move chosen by an AI level, with what the search cost")
+final class AIDecisionEvent extends jdk.jfr.Event {
+    @Label("Level")
+    String level;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Columns")
+    int cols;
+
+    @Label("Stones On Board")
+    int moveCount;
+
+    @Label("Move")
+    int move;
+
+    @Label("Score")
+    int score;
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Nodes")
+    long nodes;
+}
@@ -0,0 +1,35 @@
+package tictactoe;
+
+import java.util.random.RandomGenerator;
+
+// AI difficulty levels offered in the GUI and by the headless tools
+public enum AILevel implements Strategy {
+    EASY("Easy") {
+        @Override
+        public int chooseMove(MnkBoard board, char player, RandomGenerator random) {
+            return GameAI.getRandomMove(board, random);
+        }
+    },
+    MEDIUM("Medium") {
+        @Override
+        public int chooseMove(MnkBoard board, char player, RandomGenerator random) {
+            return GameAI.getMediumMove(board, player, random);
+        }
+    },
+    HARD("Hard") {
+        @Override
+        public int chooseMove(MnkBoard board, char player, RandomGenerator random) {
+            return GameAI.getHardMove(board, player, random);
+        }
+    },
+    MCTS("Monte Carlo") {
+        @Override
+        public int chooseMove(MnkBoard board, char player, RandomGenerator random) {
+            return GameAI.getMctsMove(board, player, random);
+        }
+    };
+    private final String displayName;
+    AILevel(String displayName) { this.displayName = displayName; }
+    @Override
+    public String toString() { return displayName; }
+}
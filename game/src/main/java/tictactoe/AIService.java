@@ -0,0 +1,255 @@
+package tictactoe;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+// Runs AI decisions on a background worker so the caller (the Swing EDT in
+// Main) never blocks on a search. Each request returns a Future; cancelling
+// it with cancel(true) interrupts the search, which then stops without
+// delivering a result. A search that throws answers with the heuristic move
+// instead, so a request that isn't cancelled always gets its answer.
+//
+// EASY, MEDIUM and 3x3 HARD are instant lookups; HARD on larger boards first
+// checks for forced wins and defenses with ThreatSearch, then runs a
+// ParallelSearch inside the given time and node budget on SEARCH_THREADS
+// threads (-Dtictactoe.searchThreads, every core by default), with one
+// transposition table kept for the life of the process. MCTS runs playouts
+// on as many threads for the time budget; the node budget caps the playout
+// count. The helper threads of both come from one pool of their own.
+//
+// Move analyses for the hint overlay run on a second worker, so a hint
+// refresh never queues behind an AI move or the other way round.
+//
+// While the human thinks, ponder() guesses their reply and searches the
+// position it would leave, with no budget, on the AI worker. If the guess is
+// right (a ponder hit) the move request lets that search run on for whatever
+// is left of its time budget, counted from when pondering began, and answers
+// from it; if not, the ponder stops and the request searches as usual, with
+// the table still holding what the ponder found. Only HARD on boards larger
+// than 3x3 ponders: the other levels answer instantly, and MCTS keeps no
+// table for a missed ponder to leave anything in.
+public final class AIService {
+    // Keeps the threat check to a few tens of milliseconds on 15x15 even when it finds nothing
+    static final long THREAT_NODE_BUDGET = 50_000;
+
+    static final int SEARCH_THREADS = Math.max(1, Integer.getInteger("tictactoe.searchThreads",
+        Runtime.getRuntime().availableProcessors()));
+
+    // 8 MB, shared by every search in the process; entries carry the board geometry in their keys
+    private static final TranspositionTable TABLE = new TranspositionTable(1 << 19);
+
+    // Helper workers for ParallelSearch and MCTS; the thread that asks for a search is the other one.
+    // Searches don't use the common pool, where parallel streams and perft could hold their helpers back.
+    private static final ExecutorService SEARCH_POOL = SEARCH_THREADS > 1
+        ? Executors.newFixedThreadPool(SEARCH_THREADS - 1, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "search-helper-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        })
+        : null;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ai-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService analysisExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ai-analysis");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Budgets <= 0 are unlimited. minThinkMillis holds the reply back so instant answers don't feel abrupt.
+    public Future<?> requestMove(MnkBoard position, char player, AILevel level, long timeBudgetMillis,
+                                 long nodeBudget, long minThinkMillis, Consumer<SearchResult> onResult) {
+        return requestMove(position, player, level, timeBudgetMillis, nodeBudget, minThinkMillis, null, onResult);
+    }
+
+    // As above, answering from ponder if it searched this very position. ponder may be null; either way
+    // the request owns it from here and stops it, at the latest when the Future is cancelled. On a hit
+    // with no time budget the ponder's result is taken at once.
+    public Future<?> requestMove(MnkBoard position, char player, AILevel level, long timeBudgetMillis,
+                                 long nodeBudget, long minThinkMillis, Ponder ponder,
+                                 Consumer<SearchResult> onResult) {
+        long start = System.nanoTime();
+        MnkBoard snapshot = new MnkBoard(position);
+        boolean hit = ponder != null && ponder.matches(snapshot, player, level);
+        if (ponder != null) GameMetrics.get().recordPonder(hit);
+        if (hit) {
+            long remaining = timeBudgetMillis > 0 ? timeBudgetMillis - (start - ponder.startNanos) / 1_000_000 : 0;
+            if (remaining > 0) {
+                CompletableFuture.delayedExecutor(remaining, TimeUnit.MILLISECONDS).execute(ponder::stop);
+            } else {
+                ponder.stop();
+            }
+        } else if (ponder != null) {
+            ponder.stop();
+        }
+        // The ponder is ahead of this task on the worker, so its result is in by the time this runs
+        Runnable answer = () -> {
+            SearchResult pondered = hit ? ponder.result.getNow(null) : null;
+            SearchResult result;
+            try {
+                result = pondered != null && pondered.move >= 0
+                    ? answerFromPonder(snapshot, player, level, pondered, start)
+                    : decide(snapshot, player, level, timeBudgetMillis, nodeBudget);
+            } catch (RuntimeException e) {
+                // The caller waits for onResult, so a failed search still has to answer
+                System.err.println("AI search failed, playing the heuristic move: " + e);
+                int move = GameAI.getHeuristicMove(snapshot, player, ThreadLocalRandom.current());
+                result = new SearchResult(move, 0, 0, 0, false);
+            }
+            try {
+                long remaining = minThinkMillis - (System.nanoTime() - start) / 1_000_000;
+                if (remaining > 0) Thread.sleep(remaining);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (!Thread.currentThread().isInterrupted()) onResult.accept(result);
+        };
+        if (!hit) return executor.submit(answer);
+        // Cancelling must end the ponder too, or it would hold the worker until its budget ran out
+        FutureTask<Void> task = new FutureTask<>(answer, null) {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                ponder.stop();
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        executor.execute(task);
+        return task;
+    }
+
+    // Starts searching, on the AI worker, the position the human's most likely reply to position would
+    // leave for player. Returns null if level doesn't ponder. Stop it when the game is reset or the
+    // level changes; a move request stops it itself.
+    public Ponder ponder(MnkBoard position, char player, AILevel level) {
+        if (level != AILevel.HARD || position.isClassic() || position.isFull()) return null;
+        Ponder ponder = new Ponder(new MnkBoard(position), player, level);
+        ponder.task = executor.submit(ponder::run);
+        return ponder;
+    }
+
+    // A search of the position the AI expects to face next
+    public static final class Ponder {
+        private final MnkBoard board;
+        private final char player;
+        private final AILevel level;
+        private final AtomicBoolean stop = new AtomicBoolean();
+        private final CompletableFuture<SearchResult> result = new CompletableFuture<>();
+        private volatile long expectedHash;
+        private volatile long startNanos;
+        private volatile Future<?> task;
+
+        private Ponder(MnkBoard board, char player, AILevel level) {
+            this.board = board;
+            this.player = player;
+            this.level = level;
+        }
+
+        private void run() {
+            startNanos = System.nanoTime();
+            char human = player == 'X' ? 'O' : 'X';
+            int expected = expectedReply(board, human);
+            if (expected < 0 || board.completesLine(expected, human)) return;
+            board.play(expected, human);
+            if (board.isFull()) return;
+            expectedHash = TranspositionTable.hash(board);
+
+            SearchResult threat = ThreatSearch.check(board, player, THREAT_NODE_BUDGET);
+            int quickMove = GameAI.getBestMove(level, board, player, ThreadLocalRandom.current());
+            if (threat != null) {
+                result.complete(threat);
+                return;
+            }
+            ParallelSearch search = new ParallelSearch(SEARCH_POOL, TABLE, SEARCH_THREADS, 0, 0);
+            SearchResult pondered = search.search(board, player, quickMove, stop);
+            GameMetrics.get().recordCacheLookups(search.tableProbes(), search.tableHits());
+            result.complete(pondered);
+        }
+
+        // What the last search expected here if the table still has it, otherwise the quick heuristic's choice
+        private static int expectedReply(MnkBoard board, char human) {
+            long data = TABLE.probe(TranspositionTable.hash(board));
+            int move = data == TranspositionTable.MISS ? -1 : TranspositionTable.move(data);
+            if (move >= 0 && move < board.cellCount() && board.isEmpty(move)) return move;
+            return GameAI.getBestMove(AILevel.HARD, board, human, ThreadLocalRandom.current());
+        }
+
+        private boolean matches(MnkBoard position, char player, AILevel level) {
+            long hash = expectedHash;
+            return hash != 0 && player == this.player && level == this.level && TranspositionTable.hash(position) == hash;
+        }
+
+        // Ends the search within a few thousand nodes; safe to call more than once, from any thread
+        public void stop() {
+            stop.set(true);
+            Future<?> running = task;
+            if (running != null) running.cancel(false);
+        }
+    }
+
+    // Fills in analysis in the background, calling onCell as each cell is done.
+    // Cancelling the Future stops it starting further cells.
+    public Future<?> requestAnalysis(MoveAnalysis analysis, long timeBudgetMillis, IntConsumer onCell) {
+        return analysisExecutor.submit(() -> analysis.analyze(timeBudgetMillis, onCell));
+    }
+
+    // Chooses the move and records it in GameMetrics, plus a JFR event when one is being recorded
+    static SearchResult decide(MnkBoard board, char player, AILevel level, long timeBudgetMillis, long nodeBudget) {
+        AIDecisionEvent event = new AIDecisionEvent();
+        event.begin();
+        long start = System.nanoTime();
+        SearchResult result = search(board, player, level, timeBudgetMillis, nodeBudget);
+        GameMetrics.get().recordDecision(event, level, board, result.move, result.score, result.depth, result.nodes,
+            System.nanoTime() - start);
+        return result;
+    }
+
+    // A ponder hit: the search is already done, so the decision takes only as long as waiting for it did
+    private static SearchResult answerFromPonder(MnkBoard board, char player, AILevel level, SearchResult pondered,
+                                                 long requestNanos) {
+        AIDecisionEvent event = new AIDecisionEvent();
+        event.begin();
+        GameMetrics.get().recordDecision(event, level, board, pondered.move, pondered.score, pondered.depth,
+            pondered.nodes, System.nanoTime() - requestNanos);
+        return pondered;
+    }
+
+    private static SearchResult search(MnkBoard board, char player, AILevel level, long timeBudgetMillis, long nodeBudget) {
+        if (level == AILevel.MCTS) {
+            return new MctsSearch(SEARCH_POOL, SEARCH_THREADS, nodeBudget, timeBudgetMillis,
+                ThreadLocalRandom.current().nextLong()).search(board, player);
+        }
+        int quickMove = GameAI.getBestMove(level, board, player, ThreadLocalRandom.current());
+        if (level != AILevel.HARD || board.isClassic()) {
+            return new SearchResult(quickMove, 0, 0, 0, true);
+        }
+        SearchResult threat = ThreatSearch.check(board, player, THREAT_NODE_BUDGET);
+        if (threat != null) return threat;
+        ParallelSearch search = new ParallelSearch(SEARCH_POOL, TABLE, SEARCH_THREADS, timeBudgetMillis, nodeBudget);
+        SearchResult result = search.search(board, player, quickMove);
+        GameMetrics.get().recordCacheLookups(search.tableProbes(), search.tableHits());
+        return result;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        analysisExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,348 @@
+package tictactoe;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Streams positions through the evaluator for bulk jobs such as generating
+// training data:
+//
+//   java tictactoe.BatchEvaluate [--board rows,cols,k] [--in file] [--out file] [--threads N]
+//                                [--nodes N] [--batch N] [--binary]
+//
+// Text input is one position per line, a row-major string of X, O and . (the
+// same as GameServer's STATE), and each output line is that position followed
+// by the best cell (-1 if the game is over) and the value for the side to move:
+// W, D or L when it is known, otherwise the heuristic search score. Lines that
+// aren't a legal position come back as "<line> ERR". X moves first, so the
+// side to move follows from the stone counts.
+//
+// --binary reads records of 2 bits per cell (0 empty, 1 X, 2 O, most
+// significant bits first, padded to a byte) and writes a short cell, a result
+// byte (0 draw, 1 win, 2 loss, 3 heuristic, 255 error) and an int score per
+// record, big-endian.
+//
+// On 3x3 every position is one PerfectPlayTable lookup; bigger boards get an
+// IterativeSearch limited to --nodes nodes. A reader thread fills batches,
+// workers evaluate them, and this thread writes them back in input order.
+// There is a fixed pool of batches: when the writer falls behind, the reader
+// waits for one to come back. Memory therefore stays the same whatever the
+// input size.
+public final class BatchEvaluate {
+    static final byte DRAW = 0;
+    static final byte WIN = 1;
+    static final byte LOSS = 2;
+    static final byte HEURISTIC = 3;
+    static final byte ERROR = (byte) 255;
+
+    private final int rows;
+    private final int cols;
+    private final int k;
+    private final long nodeBudget;
+    private final boolean binary;
+    private final int recordBytes;
+
+    BatchEvaluate(int rows, int cols, int k, long nodeBudget, boolean binary) {
+        this.rows = rows;
+        this.cols = cols;
+        this.k = k;
+        this.nodeBudget = nodeBudget;
+        this.binary = binary;
+        this.recordBytes = (rows * cols * 2 + 7) / 8;
+    }
+
+    // Positions read together and evaluated by one worker; reused once written
+    private final class Batch {
+        final String[] lines;
+        final byte[] records;
+        final int[] moves;
+        final byte[] results;
+        final int[] scores;
+        int size;
+
+        Batch(int capacity) {
+            lines = binary ? null : new String[capacity];
+            records = binary ? new byte[capacity * recordBytes] : null;
+            moves = new int[capacity];
+            results = new byte[capacity];
+            scores = new int[capacity];
+        }
+
+        int capacity() {
+            return moves.length;
+        }
+    }
+
+    // The end of input: a batch that is never written
+    private static final CompletableFuture<Batch> END = CompletableFuture.completedFuture(null);
+
+    // Returns the number of positions evaluated
+    long run(InputStream in, OutputStream out, int threads, int batchSize) throws IOException, InterruptedException {
+        int poolSize = 2 * threads + 2;
+        BlockingQueue<Batch> free = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            free.add(new Batch(batchSize));
+        }
+        BlockingQueue<CompletableFuture<Batch>> inFlight = new ArrayBlockingQueue<>(poolSize + 1);
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Thread reader = new Thread(() -> read(in, free, inFlight, workers), "batch-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        long positions = 0;
+        try {
+            Writer text = binary ? null : new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            DataOutputStream data = binary ? new DataOutputStream(new BufferedOutputStream(out, 1 << 16)) : null;
+            while (true) {
+                Batch batch = inFlight.take().get();
+                if (batch == null) break;
+                if (binary) writeBinary(batch, data); else writeText(batch, text);
+                positions += batch.size;
+                free.put(batch);
+            }
+            if (binary) data.flush(); else text.flush();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+            throw new IllegalStateException(cause);
+        } finally {
+            workers.shutdownNow();
+        }
+        return positions;
+    }
+
+    // Reader thread: fill a free batch, hand it to the workers, queue its result in input order
+    private void read(InputStream in, BlockingQueue<Batch> free, BlockingQueue<CompletableFuture<Batch>> inFlight,
+                      ExecutorService workers) {
+        try {
+            BufferedReader text = binary ? null : new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+            DataInputStream data = binary ? new DataInputStream(new BufferedInputStream(in, 1 << 16)) : null;
+            while (true) {
+                Batch batch = free.take();
+                if (binary) fillBinary(batch, data); else fillText(batch, text);
+                if (batch.size == 0) break;
+                inFlight.put(CompletableFuture.supplyAsync(() -> evaluate(batch), workers));
+                if (batch.size < batch.capacity()) break;
+            }
+            inFlight.put(END);
+        } catch (IOException e) {
+            inFlight.offer(CompletableFuture.failedFuture(new UncheckedIOException(e)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void fillText(Batch batch, BufferedReader in) throws IOException {
+        batch.size = 0;
+        String line;
+        while (batch.size < batch.capacity() && (line = in.readLine()) != null) {
+            batch.lines[batch.size++] = line;
+        }
+    }
+
+    private void fillBinary(Batch batch, DataInputStream in) throws IOException {
+        batch.size = 0;
+        try {
+            while (batch.size < batch.capacity()) {
+                in.readFully(batch.records, batch.size * recordBytes, recordBytes);
+                batch.size++;
+            }
+        } catch (EOFException e) {
+            // A truncated final record is dropped; readFully can't tell us how much of it arrived
+        }
+    }
+
+    private Batch evaluate(Batch batch) {
+        MnkBoard board = new MnkBoard(rows, cols, k);
+        for (int i = 0; i < batch.size; i++) {
+            boolean parsed = binary ? decode(batch.records, i * recordBytes, board) : parse(batch.lines[i], board);
+            if (parsed) {
+                evaluate(board, batch, i);
+            } else {
+                batch.moves[i] = -1;
+                batch.results[i] = ERROR;
+                batch.scores[i] = 0;
+            }
+        }
+        return batch;
+    }
+
+    private boolean parse(String line, MnkBoard board) {
+        board.clear();
+        String cells = line.trim();
+        if (cells.length() != board.cellCount()) return false;
+        for (int cell = 0; cell < cells.length(); cell++) {
+            char c = cells.charAt(cell);
+            if (c == 'X' || c == 'x') {
+                board.play(cell, 'X');
+            } else if (c == 'O' || c == 'o') {
+                board.play(cell, 'O');
+            } else if (c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean decode(byte[] records, int offset, MnkBoard board) {
+        board.clear();
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            int value = records[offset + cell / 4] >>> (6 - 2 * (cell % 4)) & 3;
+            if (value == 1) {
+                board.play(cell, 'X');
+            } else if (value == 2) {
+                board.play(cell, 'O');
+            } else if (value == 3) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void evaluate(MnkBoard board, Batch batch, int i) {
+        int xs = 0;
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            if (board.get(cell) == 'X') xs++;
+        }
+        int os = board.moveCount() - xs;
+        batch.moves[i] = -1;
+        batch.scores[i] = 0;
+        if (xs != os && xs != os + 1) {
+            batch.results[i] = ERROR;
+            return;
+        }
+        char player = xs == os ? 'X' : 'O';
+
+        if (board.isClassic()) {
+            PerfectPlayTable table = PerfectPlayTable.get();
+            int code = PerfectPlayTable.code(board);
+            int value = table.value(code);
+            batch.moves[i] = table.bestMove(code);
+            batch.results[i] = value == PerfectPlayTable.WIN ? WIN : value == PerfectPlayTable.LOSS ? LOSS
+                : value == PerfectPlayTable.DRAW ? DRAW : ERROR;
+            return;
+        }
+
+        // A finished game: only the player who just moved may have a line
+        int winner = lineOwner(board);
+        if (winner != 0) {
+            batch.results[i] = winner == (player == 'X' ? 'O' : 'X') ? LOSS : ERROR;
+            return;
+        }
+        if (board.isFull()) {
+            batch.results[i] = DRAW;
+            return;
+        }
+
+        int fallback = GameAI.getHeuristicMove(board, player, ThreadLocalRandom.current());
+        SearchResult result = new IterativeSearch(board, 0, nodeBudget).search(player, fallback);
+        batch.moves[i] = result.move;
+        if (Math.abs(result.score) >= IterativeSearch.WIN_SCORE - IterativeSearch.MAX_DEPTH) {
+            batch.results[i] = result.score > 0 ? WIN : LOSS;
+        } else {
+            batch.results[i] = HEURISTIC;
+            batch.scores[i] = result.score;
+        }
+    }
+
+    // 'X' or 'O' if that side has k in a row somewhere, otherwise 0
+    private static char lineOwner(MnkBoard board) {
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            char c = board.get(cell);
+            if (c != ' ' && board.winningCells(cell) != null) return c;
+        }
+        return 0;
+    }
+
+    private static void writeText(Batch batch, Writer out) throws IOException {
+        for (int i = 0; i < batch.size; i++) {
+            out.write(batch.lines[i]);
+            out.write(' ');
+            switch (batch.results[i]) {
+                case WIN: out.write(Integer.toString(batch.moves[i])); out.write(" W\n"); break;
+                case DRAW: out.write(Integer.toString(batch.moves[i])); out.write(" D\n"); break;
+                case LOSS: out.write(Integer.toString(batch.moves[i])); out.write(" L\n"); break;
+                case HEURISTIC:
+                    out.write(Integer.toString(batch.moves[i]));
+                    out.write(' ');
+                    out.write(Integer.toString(batch.scores[i]));
+                    out.write('\n');
+                    break;
+                default: out.write("ERR\n"); break;
+            }
+            batch.lines[i] = null;
+        }
+    }
+
+    private static void writeBinary(Batch batch, DataOutputStream out) throws IOException {
+        for (int i = 0; i < batch.size; i++) {
+            out.writeShort(batch.moves[i]);
+            out.writeByte(batch.results[i]);
+            out.writeInt(batch.scores[i]);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int[] geometry = {3, 3, 3};
+        Path inPath = null;
+        Path outPath = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long nodes = 20_000;
+        int batchSize = 4096;
+        boolean binary = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--board":
+                    String[] parts = args[++i].split(",");
+                    for (int j = 0; j < 3; j++) geometry[j] = Integer.parseInt(parts[j].trim());
+                    break;
+                case "--in": inPath = Path.of(args[++i]); break;
+                case "--out": outPath = Path.of(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--nodes": nodes = Long.parseLong(args[++i]); break;
+                case "--batch": batchSize = Integer.parseInt(args[++i]); break;
+                case "--binary": binary = true; break;
+                default:
+                    System.err.println("Usage: java tictactoe.BatchEvaluate [--board rows,cols,k] [--in file] [--out file] "
+                        + "[--threads N] [--nodes N] [--batch N] [--binary]");
+                    return;
+            }
+        }
+
+        BatchEvaluate pipeline = new BatchEvaluate(geometry[0], geometry[1], geometry[2], nodes, binary);
+        long start = System.nanoTime();
+        long positions;
+        try (InputStream in = inPath == null ? System.in : Files.newInputStream(inPath);
+             OutputStream out = outPath == null ? System.out : Files.newOutputStream(outPath)) {
+            positions = pipeline.run(in, out, threads, batchSize);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("%,d positions in %.2f s (%,.0f/min, %d threads)%n", positions, seconds,
+            positions / seconds * 60, threads);
+    }
+}
@@ -0,0 +1,119 @@
+package tictactoe;
+
+// 3x3 game state stored as one 9-bit mask per side. Cell index is row * 3 + col.
+public final class Board {
+    public static final int SIZE = 3;
+    public static final int CELLS = SIZE * SIZE;
+    public static final int FULL_MASK = (1 << CELLS) - 1;
+
+    // The 8 winning lines: 3 rows, 3 columns, 2 diagonals
+    static final int[] WIN_LINES = {
+        0b000_000_111, 0b000_111_000, 0b111_000_000,
+        0b001_001_001, 0b010_010_010, 0b100_100_100,
+        0b100_010_001, 0b001_010_100
+    };
+
+    private int xMask;
+    private int oMask;
+
+    public Board() {
+    }
+
+    public Board(Board other) {
+        this.xMask = other.xMask;
+        this.oMask = other.oMask;
+    }
+
+    public static Board of(int xMask, int oMask) {
+        Board board = new Board();
+        board.xMask = xMask & FULL_MASK;
+        board.oMask = oMask & FULL_MASK;
+        return board;
+    }
+
+    public Board copy() {
+        return new Board(this);
+    }
+
+    public static int index(int row, int col) {
+        return row * SIZE + col;
+    }
+
+    public static int row(int cell) {
+        return cell / SIZE;
+    }
+
+    public static int col(int cell) {
+        return cell % SIZE;
+    }
+
+    public char get(int row, int col) {
+        int bit = 1 << index(row, col);
+        if ((xMask & bit) != 0) return 'X';
+        if ((oMask & bit) != 0) return 'O';
+        return ' ';
+    }
+
+    public boolean isEmpty(int row, int col) {
+        return (emptyMask() & (1 << index(row, col))) != 0;
+    }
+
+    public void place(int row, int col, char player) {
+        int bit = 1 << index(row, col);
+        if (player == 'X') {
+            xMask |= bit;
+        } else {
+            oMask |= bit;
+        }
+    }
+
+    public void clear() {
+        xMask = 0;
+        oMask = 0;
+    }
+
+    public int mask(char player) {
+        return player == 'X' ? xMask : oMask;
+    }
+
+    public int emptyMask() {
+        return FULL_MASK & ~(xMask | oMask);
+    }
+
+    public boolean isFull() {
+        return (xMask | oMask) == FULL_MASK;
+    }
+
+    public boolean hasWon(char player) {
+        return isWin(mask(player));
+    }
+
+    // Returns the mask of the first completed line for player, or 0 if none
+    public int winningLine(char player) {
+        int m = mask(player);
+        for (int line : WIN_LINES) {
+            if ((m & line) == line) return line;
+        }
+        return 0;
+    }
+
+    // Returns a cell that completes a line for player, or -1. The probe works
+    // on a copy of the side's mask so the live position is never touched.
+    public int findWinningCell(char player) {
+        int m = mask(player);
+        int empty = emptyMask();
+        while (empty != 0) {
+            int bit = empty & -empty;
+            if (isWin(m | bit)) return Integer.numberOfTrailingZeros(bit);
+            empty &= empty - 1;
+        }
+        return -1;
+    }
+
+    public static boolean isWin(int mask) {
+        for (int line : WIN_LINES) {
+            if ((mask & line) == line) return true;
+        }
+        return false;
+    }
+}
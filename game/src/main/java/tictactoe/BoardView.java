@@ -0,0 +1,260 @@
+package tictactoe;
+
+import javax.swing.JComponent;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// The game board as one component that paints every cell itself, replacing a
+// JButton per cell. Clicks and hover are mapped to cells by arithmetic, and
+// anything that changes one cell (a move, a hint, the hover moving, a win
+// flash) repaints only that cell's rectangle, so even a 50x50 board redraws a
+// handful of cells per frame. Colors, fonts and strokes are created once per
+// board size, never while painting.
+//
+// It only reads the MnkBoard it is given; Main tells it which cells changed.
+final class BoardView extends JComponent {
+    private static final Color BACKGROUND_COLOR = new Color(45, 52, 54);
+    private static final Color CELL_COLOR = new Color(99, 110, 114);
+    private static final Color HOVER_COLOR = new Color(116, 125, 140);
+    private static final Color BEVEL_LIGHT_COLOR = new Color(140, 150, 155);
+    private static final Color BEVEL_DARK_COLOR = new Color(60, 68, 71);
+    private static final Color X_COLOR = new Color(255, 107, 107);
+    private static final Color O_COLOR = new Color(72, 219, 251);
+    private static final Color WIN_COLOR = new Color(46, 204, 113);
+    private static final Color WIN_FLASH_COLOR = new Color(39, 174, 96);
+
+    // Hints are only drawn when a cell is big enough for the text to be read
+    private static final int MIN_HINT_CELL_SIZE = 24;
+
+    private final IntConsumer onCellClicked;
+    private MnkBoard board;
+    private int cellSize;
+    private int gap;
+    private String[] hintLabels;
+    private Color[] hintColors;
+    private boolean[] winning;
+    private int[] winningCells;
+    private boolean winFlash;
+    private boolean active = true;
+    private int hoverCell = -1;
+    private Stroke pieceStroke;
+    private Font hintFont;
+    private FontMetrics hintMetrics;
+    private final Insets reusableInsets = new Insets(0, 0, 0, 0);
+
+    BoardView(IntConsumer onCellClicked) {
+        this.onCellClicked = onCellClicked;
+        setOpaque(true);
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int cell = cellAt(e.getX(), e.getY());
+                if (cell >= 0) BoardView.this.onCellClicked.accept(cell);
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHoverCell(cellAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHoverCell(-1);
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    // Shows board, sizing cells so the whole grid stays around 600 pixels across
+    void setBoard(MnkBoard board) {
+        this.board = board;
+        int longest = Math.max(board.rows(), board.cols());
+        cellSize = Math.max(10, Math.min(120, 600 / longest));
+        gap = longest <= 3 ? 5 : cellSize >= MIN_HINT_CELL_SIZE ? 2 : 1;
+        hintLabels = new String[board.cellCount()];
+        hintColors = new Color[board.cellCount()];
+        winning = new boolean[board.cellCount()];
+        winningCells = null;
+        hoverCell = -1;
+        pieceStroke = new BasicStroke(Math.max(2f, cellSize / 10f), BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+        hintFont = new Font("Arial", Font.PLAIN, Math.max(9, cellSize / 4));
+        hintMetrics = getFontMetrics(hintFont);
+        revalidate();
+        repaint();
+    }
+
+    // Forgets the winning line and hints, for a new game on the same board
+    void reset() {
+        setWinningCells(null);
+        Arrays.fill(hintLabels, null);
+        hoverCell = -1;
+        active = true;
+        repaint();
+    }
+
+    boolean canShowHints() {
+        return cellSize >= MIN_HINT_CELL_SIZE;
+    }
+
+    // Hover highlighting follows whether the game is still being played
+    void setActive(boolean active) {
+        this.active = active;
+        if (hoverCell >= 0) repaintCell(hoverCell);
+    }
+
+    // Repaints cell after the board changed there
+    void cellChanged(int cell) {
+        hintLabels[cell] = null;
+        repaintCell(cell);
+    }
+
+    void setHint(int cell, String label, Color color) {
+        hintLabels[cell] = label;
+        hintColors[cell] = color;
+        repaintCell(cell);
+    }
+
+    void clearHints() {
+        for (int cell = 0; cell < hintLabels.length; cell++) {
+            if (hintLabels[cell] != null) {
+                hintLabels[cell] = null;
+                repaintCell(cell);
+            }
+        }
+    }
+
+    // Highlights the winning line, or clears the highlight when cells is null
+    void setWinningCells(int[] cells) {
+        if (winningCells != null) {
+            for (int cell : winningCells) {
+                winning[cell] = false;
+                repaintCell(cell);
+            }
+        }
+        winningCells = cells;
+        winFlash = false;
+        if (cells == null) return;
+        for (int cell : cells) {
+            winning[cell] = true;
+            repaintCell(cell);
+        }
+    }
+
+    // One step of the win animation: the winning cells swap between two shades
+    void toggleWinFlash() {
+        if (winningCells == null) return;
+        winFlash = !winFlash;
+        for (int cell : winningCells) {
+            repaintCell(cell);
+        }
+    }
+
+    // The cell under pixel (x, y), or -1 for the gaps and the border
+    int cellAt(int x, int y) {
+        if (board == null) return -1;
+        Insets insets = getInsets(reusableInsets);
+        x -= insets.left;
+        y -= insets.top;
+        if (x < 0 || y < 0) return -1;
+        int pitch = cellSize + gap;
+        int col = x / pitch;
+        int row = y / pitch;
+        if (col >= board.cols() || row >= board.rows() || x % pitch >= cellSize || y % pitch >= cellSize) return -1;
+        return board.index(row, col);
+    }
+
+    private void setHoverCell(int cell) {
+        if (cell == hoverCell) return;
+        if (hoverCell >= 0) repaintCell(hoverCell);
+        hoverCell = cell;
+        if (cell >= 0) repaintCell(cell);
+    }
+
+    private void repaintCell(int cell) {
+        Insets insets = getInsets(reusableInsets);
+        int pitch = cellSize + gap;
+        repaint(insets.left + board.col(cell) * pitch, insets.top + board.row(cell) * pitch, cellSize, cellSize);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (board == null) return super.getPreferredSize();
+        Insets insets = getInsets(reusableInsets);
+        int pitch = cellSize + gap;
+        return new Dimension(insets.left + insets.right + board.cols() * pitch - gap,
+            insets.top + insets.bottom + board.rows() * pitch - gap);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        Rectangle clip = g2.getClipBounds();
+        g2.setColor(BACKGROUND_COLOR);
+        g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (board == null) return;
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        // Only the cells that overlap the clip
+        Insets insets = getInsets(reusableInsets);
+        int pitch = cellSize + gap;
+        int firstCol = Math.max(0, (clip.x - insets.left) / pitch);
+        int lastCol = Math.min(board.cols() - 1, (clip.x + clip.width - insets.left) / pitch);
+        int firstRow = Math.max(0, (clip.y - insets.top) / pitch);
+        int lastRow = Math.min(board.rows() - 1, (clip.y + clip.height - insets.top) / pitch);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                paintCell(g2, board.index(row, col), insets.left + col * pitch, insets.top + row * pitch);
+            }
+        }
+    }
+
+    private void paintCell(Graphics2D g2, int cell, int x, int y) {
+        char piece = board.get(cell);
+        Color fill = winning[cell] ? (winFlash ? WIN_FLASH_COLOR : WIN_COLOR)
+            : cell == hoverCell && active && piece == ' ' ? HOVER_COLOR : CELL_COLOR;
+        g2.setColor(fill);
+        g2.fillRect(x, y, cellSize, cellSize);
+
+        // Raised bevel, as the old buttons had; fills are unaffected by the piece stroke
+        g2.setColor(BEVEL_LIGHT_COLOR);
+        g2.fillRect(x, y, cellSize, 1);
+        g2.fillRect(x, y, 1, cellSize);
+        g2.setColor(BEVEL_DARK_COLOR);
+        g2.fillRect(x, y + cellSize - 1, cellSize, 1);
+        g2.fillRect(x + cellSize - 1, y, 1, cellSize);
+
+        int inset = cellSize / 4;
+        int size = cellSize - 2 * inset;
+        if (piece == 'X') {
+            g2.setColor(X_COLOR);
+            g2.setStroke(pieceStroke);
+            g2.drawLine(x + inset, y + inset, x + inset + size, y + inset + size);
+            g2.drawLine(x + inset + size, y + inset, x + inset, y + inset + size);
+        } else if (piece == 'O') {
+            g2.setColor(O_COLOR);
+            g2.setStroke(pieceStroke);
+            g2.drawOval(x + inset, y + inset, size, size);
+        } else if (hintLabels[cell] != null && canShowHints()) {
+            String label = hintLabels[cell];
+            g2.setColor(hintColors[cell]);
+            g2.setFont(hintFont);
+            g2.drawString(label, x + (cellSize - hintMetrics.stringWidth(label)) / 2,
+                y + (cellSize - hintMetrics.getHeight()) / 2 + hintMetrics.getAscent());
+        }
+    }
+}
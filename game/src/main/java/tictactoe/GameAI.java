@@ -0,0 +1,95 @@
+package tictactoe;
+
+import java.util.random.RandomGenerator;
+
+// Move selection for every AILevel, independent of the GUI so the same code
+// drives Main and the headless tools. Each AILevel is a Strategy whose
+// chooseMove calls the matching method here. Callers pass in their own random
+// generator, which keeps games reproducible and avoids sharing one across threads.
+//
+// Moves are cell indices (row * cols + col) and -1 means no move. A decision
+// allocates nothing: probes read the board in place and random choices walk
+// to the n-th empty cell instead of collecting a list first. MCTS is the
+// exception: it builds a search tree, here single-threaded on a fixed playout
+// budget (AIService gives it all cores and a time budget instead).
+public final class GameAI {
+    static final int MCTS_PLAYOUTS = 4000;
+
+    private GameAI() {
+    }
+
+    public static int getBestMove(AILevel level, MnkBoard board, char player, RandomGenerator random) {
+        return level.chooseMove(board, player, random);
+    }
+
+    static int getRandomMove(MnkBoard board, RandomGenerator random) {
+        int available = board.emptyCount();
+        if (available == 0) return -1;
+
+        return board.nthEmpty(random.nextInt(available));
+    }
+
+    static int getMediumMove(MnkBoard board, char player, RandomGenerator random) {
+        // 70% chance to play optimally, 30% chance to play randomly
+        if (random.nextDouble() < 0.7) {
+            return getHeuristicMove(board, player, random);
+        } else {
+            return getRandomMove(board, random);
+        }
+    }
+
+    static int getHardMove(MnkBoard board, char player, RandomGenerator random) {
+        if (!board.isClassic()) {
+            return getHeuristicMove(board, player, random);
+        }
+
+        // Precomputed perfect play, so HARD never loses on 3x3
+        return PerfectPlayTable.get().bestMove(PerfectPlayTable.code(board));
+    }
+
+    static int getMctsMove(MnkBoard board, char player, RandomGenerator random) {
+        return new MctsSearch(null, 1, MCTS_PLAYOUTS, 0, random.nextLong()).search(board, player).move;
+    }
+
+    static int getHeuristicMove(MnkBoard board, char player, RandomGenerator random) {
+        // Try to win first
+        int winMove = findWinningMove(board, player);
+        if (winMove >= 0) return winMove;
+
+        // Block opponent from winning
+        int blockMove = findWinningMove(board, player == 'X' ? 'O' : 'X');
+        if (blockMove >= 0) return blockMove;
+
+        // Take center if available
+        int center = board.index(board.rows() / 2, board.cols() / 2);
+        if (board.isEmpty(center)) {
+            return center;
+        }
+
+        // Take corners
+        int lastRow = board.rows() - 1;
+        int lastCol = board.cols() - 1;
+        for (int corner = 0; corner < 4; corner++) {
+            int cell = board.index((corner & 2) == 0 ? 0 : lastRow, (corner & 1) == 0 ? 0 : lastCol);
+            if (board.isEmpty(cell)) {
+                return cell;
+            }
+        }
+
+        // Take any available move
+        return getRandomMove(board, random);
+    }
+
+    static int findWinningMove(MnkBoard board, char player) {
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            if (board.isEmpty(cell) && board.completesLine(cell, player)) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    static void getAvailableMoves(MnkBoard board, MoveList moves) {
+        board.generateMoves(moves);
+    }
+}
@@ -0,0 +1,174 @@
+package tictactoe;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Sound effects, played from a thread of their own so a click never waits
+// for the sound card.
+//
+// The clips are rendered to PCM once, up front, and each has its own line,
+// opened and started at construction and kept open, so playing one is just
+// writing bytes that are already there. play() sets the clip's bit and wakes
+// the playback thread; nothing else happens on the caller's thread, and
+// nothing is allocated. Triggers of a clip that arrive before the thread gets
+// to them count once, and a clip triggered again while it is still sounding
+// starts over on its own line rather than piling up a second copy.
+//
+// The lines have small buffers (about 6 ms) and the thread only ever writes
+// what fits, so it never blocks in write and a trigger is on the line within
+// a millisecond or so; GameMetrics.soundTrigger records how long it took.
+// Without a sound device every line is missing and play() does nothing.
+public final class GameAudio implements Runnable, AutoCloseable {
+    public enum Sound { MOVE, WIN, ERROR }
+
+    static final AudioFormat FORMAT = new AudioFormat(44_100, 16, 1, true, false);
+    private static final int FRAME_BYTES = 2;
+    private static final int LINE_BUFFER_BYTES = 256 * FRAME_BYTES;
+    private static final int AMPLITUDE = 8_000;
+
+    // While a clip is playing the thread tops its line up this often; idle, it parks until play()
+    private static final long REFILL_NANOS = 1_000_000;
+
+    private static final Sound[] SOUNDS = Sound.values();
+
+    private final byte[][] clips = new byte[SOUNDS.length][];
+    private final SourceDataLine[] lines;
+    // Bytes of each clip written so far; the clip's length when it is not playing. Playback thread only.
+    private final int[] written = new int[SOUNDS.length];
+    private final AtomicInteger pending = new AtomicInteger();
+    // When each pending trigger was first made, 0 if none is pending
+    private final AtomicLongArray triggeredNanos = new AtomicLongArray(SOUNDS.length);
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public GameAudio() {
+        this(openLines());
+    }
+
+    // lines[s] plays SOUNDS[s]; a null line stays silent
+    GameAudio(SourceDataLine[] lines) {
+        this.lines = lines;
+        // Move: a short click; win: a rising arpeggio; error: two low buzzes
+        clips[Sound.MOVE.ordinal()] = render(new double[]{880}, 40, 0);
+        clips[Sound.WIN.ordinal()] = render(new double[]{523.25, 659.25, 783.99}, 100, 0);
+        clips[Sound.ERROR.ordinal()] = render(new double[]{196, 196}, 60, 40);
+        for (int s = 0; s < SOUNDS.length; s++) {
+            written[s] = clips[s].length;
+        }
+        boolean any = false;
+        for (SourceDataLine line : lines) any |= line != null;
+        if (any) {
+            thread = new Thread(this, "audio");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MAX_PRIORITY);
+            thread.start();
+        } else {
+            thread = null;
+        }
+    }
+
+    private static SourceDataLine[] openLines() {
+        SourceDataLine[] lines = new SourceDataLine[SOUNDS.length];
+        try {
+            for (int s = 0; s < lines.length; s++) {
+                SourceDataLine line = AudioSystem.getSourceDataLine(FORMAT);
+                line.open(FORMAT, LINE_BUFFER_BYTES);
+                line.start();
+                lines[s] = line;
+            }
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            System.err.println("Sound disabled: " + e.getMessage());
+            for (int s = 0; s < lines.length; s++) {
+                if (lines[s] != null) lines[s].close();
+                lines[s] = null;
+            }
+        }
+        return lines;
+    }
+
+    // Sine tones of noteMillis each, gapMillis apart, faded in and out so they don't click
+    private static byte[] render(double[] frequencies, int noteMillis, int gapMillis) {
+        int noteFrames = (int) (FORMAT.getSampleRate() * noteMillis / 1000);
+        int gapFrames = (int) (FORMAT.getSampleRate() * gapMillis / 1000);
+        int fadeFrames = Math.min(noteFrames / 4, (int) (FORMAT.getSampleRate() / 200));
+        byte[] pcm = new byte[(frequencies.length * noteFrames + (frequencies.length - 1) * gapFrames) * FRAME_BYTES];
+        for (int note = 0; note < frequencies.length; note++) {
+            int offset = note * (noteFrames + gapFrames);
+            for (int i = 0; i < noteFrames; i++) {
+                double envelope = Math.min(1, Math.min(i, noteFrames - 1 - i) / (double) fadeFrames);
+                short sample = (short) (AMPLITUDE * envelope
+                    * Math.sin(2 * Math.PI * frequencies[note] * i / FORMAT.getSampleRate()));
+                pcm[(offset + i) * FRAME_BYTES] = (byte) sample;
+                pcm[(offset + i) * FRAME_BYTES + 1] = (byte) (sample >> 8);
+            }
+        }
+        return pcm;
+    }
+
+    // Safe on any thread, the EDT included: never blocks and allocates nothing
+    public void play(Sound sound) {
+        if (thread == null || lines[sound.ordinal()] == null) return;
+        int bit = 1 << sound.ordinal();
+        triggeredNanos.compareAndSet(sound.ordinal(), 0, System.nanoTime());
+        int was;
+        do {
+            was = pending.get();
+        } while (!pending.compareAndSet(was, was | bit));
+        if (was == 0) LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                int triggered = pending.getAndSet(0);
+                for (int s = 0; s < SOUNDS.length; s++) {
+                    if ((triggered & (1 << s)) == 0) continue;
+                    // Drop whatever of the last play is still queued and start over
+                    if (written[s] < clips[s].length) lines[s].flush();
+                    written[s] = 0;
+                }
+                boolean playing = false;
+                for (int s = 0; s < SOUNDS.length; s++) {
+                    if (written[s] < clips[s].length) playing |= refill(s);
+                }
+                // play() unparks when it sets the first pending bit, so a trigger during refill isn't slept through
+                if (playing) {
+                    LockSupport.parkNanos(REFILL_NANOS);
+                } else if (pending.get() == 0) {
+                    LockSupport.park();
+                }
+            }
+        } finally {
+            for (SourceDataLine line : lines) {
+                if (line != null) line.close();
+            }
+        }
+    }
+
+    // Writes as much of clip s as the line has room for; returns whether any of it is left
+    private boolean refill(int s) {
+        SourceDataLine line = lines[s];
+        int room = line.available();
+        room -= room % FRAME_BYTES;
+        int count = Math.min(room, clips[s].length - written[s]);
+        if (count > 0) {
+            long triggered = written[s] == 0 ? triggeredNanos.getAndSet(s, 0) : 0;
+            if (triggered != 0) GameMetrics.get().soundTrigger.record(System.nanoTime() - triggered);
+            line.write(clips[s], written[s], count);
+            written[s] += count;
+        }
+        return written[s] < clips[s].length;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (thread != null) LockSupport.unpark(thread);
+    }
+}
@@ -0,0 +1,92 @@
+package tictactoe;
+
+// One event read from a GameEventBus. Subscribers get the same instance for
+// every event they read, refilled each time, so it must not be kept or
+// handed to another thread; copy out what is needed.
+//
+//   MOVE_PLAYED  player played cell, which was move number moveCount of the game
+//   GAME_WON     player won with the move on cell
+//   GAME_DRAWN   the board filled up; player made the last move, on cell
+//   RESET        game started on a rows x cols board with k in a row
+//
+// Every event carries the game it belongs to (a number GameSession bumps on
+// each reset, so events of an abandoned game can be told apart), the board
+// geometry and who plays X and O (null for a human).
+public final class GameEvent {
+    public enum Type { MOVE_PLAYED, GAME_WON, GAME_DRAWN, RESET }
+
+    static final Type[] TYPES = Type.values();
+
+    Type type;
+    long sequence;
+    long game;
+    char player;
+    int cell;
+    int moveCount;
+    int rows;
+    int cols;
+    int k;
+    AILevel xPlayer;
+    AILevel oPlayer;
+    long publishedNanos;
+
+    public Type type() {
+        return type;
+    }
+
+    // Position of the event on its bus, counting from 0
+    public long sequence() {
+        return sequence;
+    }
+
+    public long game() {
+        return game;
+    }
+
+    public char player() {
+        return player;
+    }
+
+    public int cell() {
+        return cell;
+    }
+
+    public int moveCount() {
+        return moveCount;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int k() {
+        return k;
+    }
+
+    public AILevel xPlayer() {
+        return xPlayer;
+    }
+
+    public AILevel oPlayer() {
+        return oPlayer;
+    }
+
+    // System.nanoTime() when it was published
+    public long publishedNanos() {
+        return publishedNanos;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case MOVE_PLAYED: return "MOVE " + player + " " + cell + " " + moveCount;
+            case GAME_WON: return "WIN " + player + " " + cell;
+            case GAME_DRAWN: return "DRAW";
+            default: return "RESET " + rows + " " + cols + " " + k;
+        }
+    }
+}
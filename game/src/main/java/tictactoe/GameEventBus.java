@@ -0,0 +1,265 @@
+package tictactoe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+// Single-producer, multi-consumer ring of GameEvents. The game publishes;
+// the GUI, the journal, metrics and network spectators each read at their
+// own pace with their own Cursor, and none of them can hold the game up:
+// publishing never waits for a reader. A reader that falls a whole ring
+// behind skips ahead to the oldest event still in the ring and counts what
+// it missed.
+//
+// Events live in preallocated parallel arrays, so publish writes a handful
+// of fields and allocates nothing. Each slot has a stamp, the sequence of
+// the event in it, or -1 while it is being rewritten; a reader checks the
+// stamp before and after copying the slot (a seqlock), so it never sees an
+// event that was overwritten half way through the copy.
+//
+// Only one thread may publish at a time, and successive publishers must be
+// ordered by a lock or by handing over the work (the EDT in Main, the game's
+// monitor in GameServer). Subscribers run on their own daemon threads; an
+// idle one spins and yields for a moment, then blocks until publish wakes it,
+// so a quiet bus costs no CPU.
+public final class GameEventBus {
+    // Called on the subscriber's thread; endOfBatch is true when no further event is waiting yet
+    public interface Listener {
+        void onEvent(GameEvent event, boolean endOfBatch);
+    }
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    // An idle subscriber spins, then yields, then parks until publish unparks it
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+
+    private static final VarHandle STAMPS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle PUBLISHED;
+
+    static {
+        try {
+            PUBLISHED = MethodHandles.lookup().findVarHandle(GameEventBus.class, "published", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int mask;
+    private final long[] stamps;
+    private final byte[] types;
+    private final long[] games;
+    private final char[] players;
+    private final int[] cells;
+    private final int[] moveCounts;
+    private final int[] geometry;
+    private final AILevel[] xPlayers;
+    private final AILevel[] oPlayers;
+    private final long[] publishedNanos;
+
+    // Written only by the publisher; published is the sequence of the newest complete event
+    private long next;
+    @SuppressWarnings("unused")
+    private volatile long published = -1;
+    // Replaced whole under the bus's lock, so publish can walk it without one
+    private volatile Subscription[] subscriptions = new Subscription[0];
+
+    public GameEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // capacity is rounded up to a power of two
+    public GameEventBus(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        mask = size - 1;
+        stamps = new long[size];
+        Arrays.fill(stamps, -1);
+        types = new byte[size];
+        games = new long[size];
+        players = new char[size];
+        cells = new int[size];
+        moveCounts = new int[size];
+        geometry = new int[size * 3];
+        xPlayers = new AILevel[size];
+        oPlayers = new AILevel[size];
+        publishedNanos = new long[size];
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    // Sequence of the newest event, -1 before the first
+    public long published() {
+        return (long) PUBLISHED.getAcquire(this);
+    }
+
+    public void publish(GameEvent.Type type, long game, char player, int cell, int moveCount,
+                        int rows, int cols, int k, AILevel xPlayer, AILevel oPlayer) {
+        long sequence = next++;
+        int slot = (int) sequence & mask;
+        STAMPS.setOpaque(stamps, slot, -1L);
+        VarHandle.storeStoreFence();
+        types[slot] = (byte) type.ordinal();
+        games[slot] = game;
+        players[slot] = player;
+        cells[slot] = cell;
+        moveCounts[slot] = moveCount;
+        geometry[slot * 3] = rows;
+        geometry[slot * 3 + 1] = cols;
+        geometry[slot * 3 + 2] = k;
+        xPlayers[slot] = xPlayer;
+        oPlayers[slot] = oPlayer;
+        publishedNanos[slot] = System.nanoTime();
+        STAMPS.setRelease(stamps, slot, sequence);
+        // Volatile, not release: a subscriber sets parked and then rereads published, and one of the two
+        // has to see the other's write or it would sleep through this event
+        PUBLISHED.setVolatile(this, sequence);
+        for (Subscription subscription : subscriptions) {
+            if (subscription.parked) LockSupport.unpark(subscription.thread);
+        }
+    }
+
+    // A reader starting with the next event published
+    public Cursor cursor() {
+        return new Cursor(published() + 1);
+    }
+
+    // Runs listener on a daemon thread named events-<name> for every event from now on
+    public Subscription subscribe(String name, Listener listener) {
+        Subscription subscription = new Subscription(cursor(), listener, "events-" + name);
+        synchronized (this) {
+            Subscription[] current = subscriptions;
+            Subscription[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = subscription;
+            subscriptions = grown;
+        }
+        subscription.thread.start();
+        return subscription;
+    }
+
+    private synchronized void remove(Subscription subscription) {
+        Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] != subscription) continue;
+            Subscription[] shrunk = Arrays.copyOf(current, current.length - 1);
+            System.arraycopy(current, i + 1, shrunk, i, current.length - i - 1);
+            subscriptions = shrunk;
+            return;
+        }
+    }
+
+    // One reader's position in the ring. Not thread-safe: one thread polls it.
+    public final class Cursor {
+        private long next;
+        private long missed;
+
+        private Cursor(long next) {
+            this.next = next;
+        }
+
+        // Copies the next event into event and returns true, or returns false if there is none yet
+        public boolean poll(GameEvent event) {
+            while (true) {
+                long newest = published();
+                if (next > newest) return false;
+                int slot = (int) next & mask;
+                long stamp = (long) STAMPS.getAcquire(stamps, slot);
+                if (stamp == next) {
+                    event.type = GameEvent.TYPES[types[slot]];
+                    event.game = games[slot];
+                    event.player = players[slot];
+                    event.cell = cells[slot];
+                    event.moveCount = moveCounts[slot];
+                    event.rows = geometry[slot * 3];
+                    event.cols = geometry[slot * 3 + 1];
+                    event.k = geometry[slot * 3 + 2];
+                    event.xPlayer = xPlayers[slot];
+                    event.oPlayer = oPlayers[slot];
+                    event.publishedNanos = publishedNanos[slot];
+                    VarHandle.loadLoadFence();
+                    if ((long) STAMPS.getOpaque(stamps, slot) == next) {
+                        event.sequence = next++;
+                        return true;
+                    }
+                }
+                // Lapped: the slot already holds (or is taking) a later event, so skip to the oldest one left
+                long oldest = Math.max(next + 1, published() - mask + 1);
+                missed += oldest - next;
+                next = oldest;
+            }
+        }
+
+        // Events published but not read yet
+        public long lag() {
+            return Math.max(0, published() + 1 - next);
+        }
+
+        // Events overwritten before this cursor got to them
+        public long missed() {
+            return missed;
+        }
+    }
+
+    // A listener running on its own thread; close() stops it
+    public final class Subscription implements Runnable, AutoCloseable {
+        private final Cursor cursor;
+        private final Listener listener;
+        private final GameEvent event = new GameEvent();
+        private final Thread thread;
+        private volatile boolean running = true;
+        private volatile boolean parked;
+
+        private Subscription(Cursor cursor, Listener listener, String threadName) {
+            this.cursor = cursor;
+            this.listener = listener;
+            this.thread = new Thread(this, threadName);
+            thread.setDaemon(true);
+        }
+
+        public long missed() {
+            return cursor.missed();
+        }
+
+        public long lag() {
+            return cursor.lag();
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (running) {
+                if (!cursor.poll(event)) {
+                    if (idle < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+                        Thread.yield();
+                    } else {
+                        parked = true;
+                        if (running && (long) PUBLISHED.getVolatile(GameEventBus.this) < cursor.next) {
+                            LockSupport.park(this);
+                        }
+                        parked = false;
+                    }
+                    idle++;
+                    continue;
+                }
+                idle = 0;
+                try {
+                    listener.onEvent(event, cursor.lag() == 0);
+                } catch (RuntimeException e) {
+                    // One bad event must not end the subscription
+                    System.err.println(Thread.currentThread().getName() + ": " + e);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            running = false;
+            remove(this);
+            LockSupport.unpark(thread);
+        }
+    }
+}
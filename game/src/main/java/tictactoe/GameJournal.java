@@ -0,0 +1,260 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Append-only binary log of finished games, read back by JournalStats.
+//
+// The file starts with MAGIC "TTTJ" and VERSION, then one record per game:
+//   byte   rows, cols, k
+//   byte   result (bits 0-1: 0 draw, 1 X won, 2 O won), X's player (bits 2-4), O's player (bits 5-7)
+//   short  move count
+//   moves  packed most significant bit first, moveBits(rows * cols) bits each, padded to a byte
+// A player is 0 for a human or 1 + the AILevel ordinal. Moves take 4 bits on
+// boards of up to 16 cells, so a 3x3 game is at most 11 bytes.
+//
+// Records are gathered in a direct buffer and written with one channel write
+// when it fills or on flush(). The channel is forced to disk at most every
+// SYNC_BYTES or SYNC_INTERVAL_MILLIS, and on close, so a crash can lose the
+// last batch or leave a torn final record. The reader skips it, and open()
+// cuts it off before appending, since records written after a torn one
+// could never be lined up again. Boards are limited to MnkBoard.MAX_SIZE,
+// so a record header that claims more marks the file as corrupt there. Methods
+// are synchronized so parallel producers can share one journal; self-play
+// encodes whole chunks into its own buffer and appends them in one call.
+// The GUI subscribes recorder() to its GameEventBus instead, which rebuilds
+// each game from the events and writes it once it ends.
+public final class GameJournal implements AutoCloseable {
+    static final int MAGIC = 0x5454544A; // "TTTJ"
+    static final int VERSION = 1;
+    static final int FILE_HEADER_BYTES = 8;
+    static final int RECORD_HEADER_BYTES = 6;
+    static final int MAX_PLAYERS = 8;
+
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final long SYNC_BYTES = 64L << 20;
+    private static final long SYNC_INTERVAL_MILLIS = 1000;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private long unsyncedBytes;
+    private long lastSync = System.nanoTime();
+
+    private GameJournal(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    // Opens path for appending, writing the file header if the file is new
+    public static GameJournal open(Path path) throws IOException {
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+            if (channel.size() == 0) {
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                while (header.hasRemaining()) channel.write(header);
+            } else {
+                channel.read(header, 0);
+                header.flip();
+                if (header.remaining() < FILE_HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                    throw new IOException(path + " is not a version " + VERSION + " game journal");
+                }
+            }
+            long end = endOfRecords(channel);
+            if (end < channel.size()) {
+                System.err.println("Game journal " + path + ": dropped " + (channel.size() - end)
+                    + " bytes of a torn or corrupt tail at offset " + end);
+                channel.truncate(end);
+            }
+            channel.position(end);
+            return new GameJournal(channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Offset just past the last complete record, reading the records in from the file header on
+    private static long endOfRecords(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ByteBuffer chunk = ByteBuffer.allocate(BUFFER_BYTES);
+        long end = FILE_HEADER_BYTES;
+        while (end < size) {
+            chunk.clear();
+            while (chunk.hasRemaining() && channel.read(chunk, end + chunk.position()) > 0) {
+                // read until the chunk is full or the file ends
+            }
+            chunk.flip();
+            int position = 0;
+            while (chunk.limit() - position >= RECORD_HEADER_BYTES) {
+                int rows = chunk.get(position) & 0xFF;
+                int cols = chunk.get(position + 1) & 0xFF;
+                int k = chunk.get(position + 2) & 0xFF;
+                int moveCount = chunk.getShort(position + 4) & 0xFFFF;
+                if (!isValidRecord(rows, cols, k, chunk.get(position + 3) & 0xFF, moveCount)) return end + position;
+                int bytes = recordBytes(rows * cols, moveCount);
+                if (chunk.limit() - position < bytes) break;
+                position += bytes;
+            }
+            // A record the chunk can't finish is either cut by the chunk, and read again at the top of the
+            // next one, or torn at the end of the file
+            if (position == 0) break;
+            end += position;
+        }
+        return end;
+    }
+
+    // False for a record header no writer produces, which can only come from a damaged file
+    static boolean isValidRecord(int rows, int cols, int k, int meta, int moveCount) {
+        return MnkBoard.isSupported(rows, cols, k) && (meta & 3) != 3 && moveCount <= rows * cols;
+    }
+
+    // Bits per move on a board of cellCount cells: enough for the largest cell index
+    static int moveBits(int cellCount) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(cellCount - 1));
+    }
+
+    static int recordBytes(int cellCount, int moveCount) {
+        return RECORD_HEADER_BYTES + (moveCount * moveBits(cellCount) + 7) / 8;
+    }
+
+    static int maxRecordBytes(int cellCount) {
+        return recordBytes(cellCount, cellCount);
+    }
+
+    // 0 for a human, otherwise 1 + the level's ordinal
+    static int playerCode(AILevel level) {
+        return level == null ? 0 : level.ordinal() + 1;
+    }
+
+    // Writes one game record into out; winner is 'X', 'O' or ' ' for a draw
+    static void encode(ByteBuffer out, int rows, int cols, int k, AILevel x, AILevel o, char winner,
+                       int[] moves, int moveCount) {
+        int result = winner == 'X' ? 1 : winner == 'O' ? 2 : 0;
+        out.put((byte) rows).put((byte) cols).put((byte) k)
+            .put((byte) (result | playerCode(x) << 2 | playerCode(o) << 5))
+            .putShort((short) moveCount);
+        int bits = moveBits(rows * cols);
+        int pending = 0;
+        int pendingBits = 0;
+        for (int i = 0; i < moveCount; i++) {
+            pending = pending << bits | moves[i];
+            pendingBits += bits;
+            while (pendingBits >= 8) {
+                pendingBits -= 8;
+                out.put((byte) (pending >>> pendingBits));
+            }
+        }
+        if (pendingBits > 0) out.put((byte) (pending << (8 - pendingBits)));
+    }
+
+    // Appends the finished game in session; x and o are null for human players
+    public synchronized void append(GameSession session, AILevel x, AILevel o) throws IOException {
+        MnkBoard board = session.board();
+        int bytes = recordBytes(board.cellCount(), board.moveCount());
+        if (buffer.remaining() < bytes) drain();
+        char winner = session.winningCells() == null ? ' ' : session.currentPlayer();
+        encode(buffer, board.rows(), board.cols(), board.k(), x, o, winner, session.moves(), board.moveCount());
+        afterAppend(bytes);
+    }
+
+    // Appends records already encoded with encode(), from position to limit
+    public synchronized void append(ByteBuffer records) throws IOException {
+        int bytes = records.remaining();
+        if (bytes > buffer.remaining()) {
+            drain();
+            if (bytes > buffer.remaining()) {
+                while (records.hasRemaining()) channel.write(records);
+                afterAppend(bytes);
+                return;
+            }
+        }
+        buffer.put(records);
+        afterAppend(bytes);
+    }
+
+    // Event listener that appends every finished game it sees, flushing at the end of each batch
+    public GameEventBus.Listener recorder() {
+        return new GameEventBus.Listener() {
+            private int[] moves = new int[0];
+            private int moveCount;
+            private ByteBuffer record = ByteBuffer.allocate(0);
+
+            @Override
+            public void onEvent(GameEvent event, boolean endOfBatch) {
+                int cellCount = event.rows() * event.cols();
+                switch (event.type()) {
+                    case RESET:
+                        if (moves.length != cellCount) {
+                            moves = new int[cellCount];
+                            record = ByteBuffer.allocate(maxRecordBytes(cellCount));
+                        }
+                        moveCount = 0;
+                        break;
+                    case MOVE_PLAYED:
+                        // A missed event leaves a gap; the move count says where this one goes
+                        if (event.moveCount() <= moves.length) moves[event.moveCount() - 1] = event.cell();
+                        moveCount = event.moveCount();
+                        break;
+                    default:
+                        if (moves.length != cellCount) break;
+                        record.clear();
+                        encode(record, event.rows(), event.cols(), event.k(), event.xPlayer(), event.oPlayer(),
+                            event.type() == GameEvent.Type.GAME_WON ? event.player() : ' ', moves, moveCount);
+                        try {
+                            append(record.flip());
+                        } catch (IOException e) {
+                            System.err.println("Could not record game: " + e.getMessage());
+                        }
+                        break;
+                }
+                if (endOfBatch) {
+                    try {
+                        flush();
+                    } catch (IOException e) {
+                        System.err.println("Could not flush game journal: " + e.getMessage());
+                    }
+                }
+            }
+        };
+    }
+
+    private void afterAppend(int bytes) throws IOException {
+        unsyncedBytes += bytes;
+        if (unsyncedBytes >= SYNC_BYTES || System.nanoTime() - lastSync >= SYNC_INTERVAL_MILLIS * 1_000_000) {
+            sync();
+        }
+    }
+
+    // Hands buffered records to the OS without waiting for the disk
+    public synchronized void flush() throws IOException {
+        drain();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    private void sync() throws IOException {
+        drain();
+        channel.force(false);
+        unsyncedBytes = 0;
+        lastSync = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package tictactoe;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+// Process-wide counters and latency histograms for play and AI search,
+// registered with the platform MBean server as tictactoe:type=GameMetrics so
+// JConsole or any JMX client can read them from a running game or server.
+//
+//   aiDecision  choosing an AI move (AIService and GameServer)
+//   input       a click in the GUI until the board has been repainted
+//   move        GameSession.play, the legality and win check
+//   gameEnd     Main.handleGameEnd: status, score, highlight
+//   eventDelivery  publishing a GameEvent until a subscriber has it, measured
+//                  by subscribing recorder() to the bus
+//   soundTrigger  GameAudio.play until the first of the clip is on its line
+//
+// Ponder hit rate is the share of AI move requests that found AIService
+// already searching the position the human had just left.
+//
+// Everything is a LatencyHistogram or a LongAdder, so recording is lock-free
+// and allocates nothing; it is meant to stay on.
+public final class GameMetrics implements GameMetricsMBean {
+    public static final String OBJECT_NAME = "tictactoe:type=GameMetrics";
+
+    private static final GameMetrics INSTANCE = register(new GameMetrics());
+
+    final LatencyHistogram aiDecision = new LatencyHistogram();
+    final LatencyHistogram input = new LatencyHistogram();
+    final LatencyHistogram move = new LatencyHistogram();
+    final LatencyHistogram gameEnd = new LatencyHistogram();
+    final LatencyHistogram eventDelivery = new LatencyHistogram();
+    final LatencyHistogram soundTrigger = new LatencyHistogram();
+    private final LongAdder gamesCompleted = new LongAdder();
+    private final LongAdder nodesSearched = new LongAdder();
+    private final LongAdder cacheProbes = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder ponderHits = new LongAdder();
+    private final LongAdder ponderMisses = new LongAdder();
+
+    private GameMetrics() {
+    }
+
+    public static GameMetrics get() {
+        return INSTANCE;
+    }
+
+    // Metrics still count when JMX is unavailable; they just can't be read remotely
+    private static GameMetrics register(GameMetrics metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+        } catch (JMException | SecurityException e) {
+            System.err.println("GameMetrics not registered with JMX: " + e.getMessage());
+        }
+        return metrics;
+    }
+
+    // Records one AI decision and commits event (begun before the search) if JFR wants it
+    void recordDecision(AIDecisionEvent event, AILevel level, MnkBoard board, int chosenMove, int score,
+                        int depth, long nodes, long nanos) {
+        aiDecision.record(nanos);
+        nodesSearched.add(nodes);
+        if (event.shouldCommit()) {
+            event.level = level.name();
+            event.rows = board.rows();
+            event.cols = board.cols();
+            event.moveCount = board.moveCount();
+            event.move = chosenMove;
+            event.score = score;
+            event.depth = depth;
+            event.nodes = nodes;
+            event.commit();
+        }
+    }
+
+    // Event listener that records how long each event took to reach it
+    public GameEventBus.Listener recorder() {
+        return (event, endOfBatch) -> eventDelivery.record(System.nanoTime() - event.publishedNanos());
+    }
+
+    void recordNodes(long nodes) {
+        nodesSearched.add(nodes);
+    }
+
+    // Lookups in a transposition table: the Solver's, or the one AIService's searches share
+    void recordCacheLookups(long probes, long hits) {
+        cacheProbes.add(probes);
+        cacheHits.add(hits);
+    }
+
+    void recordPonder(boolean hit) {
+        (hit ? ponderHits : ponderMisses).increment();
+    }
+
+    void gameCompleted() {
+        gamesCompleted.increment();
+    }
+
+    @Override
+    public long getGamesCompleted() {
+        return gamesCompleted.sum();
+    }
+
+    @Override
+    public long getAiDecisions() {
+        return aiDecision.count();
+    }
+
+    @Override
+    public long getNodesSearched() {
+        return nodesSearched.sum();
+    }
+
+    @Override
+    public double getCacheHitRate() {
+        long probes = cacheProbes.sum();
+        return probes == 0 ? 0 : (double) cacheHits.sum() / probes;
+    }
+
+    @Override
+    public long getPonders() {
+        return ponderHits.sum() + ponderMisses.sum();
+    }
+
+    @Override
+    public double getPonderHitRate() {
+        long hits = ponderHits.sum();
+        long ponders = hits + ponderMisses.sum();
+        return ponders == 0 ? 0 : (double) hits / ponders;
+    }
+
+    @Override
+    public long getAiDecisionP50Micros() {
+        return aiDecision.percentile(0.50) / 1000;
+    }
+
+    @Override
+    public long getAiDecisionP99Micros() {
+        return aiDecision.percentile(0.99) / 1000;
+    }
+
+    @Override
+    public long getAiDecisionMaxMicros() {
+        return aiDecision.max() / 1000;
+    }
+
+    @Override
+    public long getInputLatencyP50Micros() {
+        return input.percentile(0.50) / 1000;
+    }
+
+    @Override
+    public long getInputLatencyP99Micros() {
+        return input.percentile(0.99) / 1000;
+    }
+
+    @Override
+    public long getInputLatencyMaxMicros() {
+        return input.max() / 1000;
+    }
+
+    @Override
+    public long getMoveLatencyP50Micros() {
+        return move.percentile(0.50) / 1000;
+    }
+
+    @Override
+    public long getMoveLatencyP99Micros() {
+        return move.percentile(0.99) / 1000;
+    }
+
+    @Override
+    public long getMoveLatencyMaxMicros() {
+        return move.max() / 1000;
+    }
+
+    @Override
+    public long getGameEndLatencyP50Micros() {
+        return gameEnd.percentile(0.50) / 1000;
+    }
+
+    @Override
+    public long getGameEndLatencyP99Micros() {
+        return gameEnd.percentile(0.99) / 1000;
+    }
+
+    @Override
+    public long getGameEndLatencyMaxMicros() {
+        return gameEnd.max() / 1000;
+    }
+
+    @Override
+    public long getEventDeliveryP50Micros() {
+        return eventDelivery.percentile(0.50) / 1000;
+    }
+
+    @Override
+    public long getEventDeliveryP99Micros() {
+        return eventDelivery.percentile(0.99) / 1000;
+    }
+
+    @Override
+    public long getEventDeliveryMaxMicros() {
+        return eventDelivery.max() / 1000;
+    }
+
+    @Override
+    public long getSoundTriggerP50Micros() {
+        return soundTrigger.percentile(0.50) / 1000;
+    }
+
+    @Override
+    public long getSoundTriggerP99Micros() {
+        return soundTrigger.percentile(0.99) / 1000;
+    }
+
+    @Override
+    public long getSoundTriggerMaxMicros() {
+        return soundTrigger.max() / 1000;
+    }
+
+    @Override
+    public void reset() {
+        aiDecision.reset();
+        input.reset();
+        move.reset();
+        gameEnd.reset();
+        eventDelivery.reset();
+        soundTrigger.reset();
+        gamesCompleted.reset();
+        nodesSearched.reset();
+        cacheProbes.reset();
+        cacheHits.reset();
+        ponderHits.reset();
+        ponderMisses.reset();
+    }
+}
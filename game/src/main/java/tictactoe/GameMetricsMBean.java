@@ -0,0 +1,54 @@
+package tictactoe;
+
+// JMX view of GameMetrics. Latencies are in microseconds.
+public interface GameMetricsMBean {
+    long getGamesCompleted();
+
+    long getAiDecisions();
+
+    long getNodesSearched();
+
+    double getCacheHitRate();
+
+    long getPonders();
+
+    double getPonderHitRate();
+
+    long getAiDecisionP50Micros();
+
+    long getAiDecisionP99Micros();
+
+    long getAiDecisionMaxMicros();
+
+    long getInputLatencyP50Micros();
+
+    long getInputLatencyP99Micros();
+
+    long getInputLatencyMaxMicros();
+
+    long getMoveLatencyP50Micros();
+
+    long getMoveLatencyP99Micros();
+
+    long getMoveLatencyMaxMicros();
+
+    long getGameEndLatencyP50Micros();
+
+    long getGameEndLatencyP99Micros();
+
+    long getGameEndLatencyMaxMicros();
+
+    long getEventDeliveryP50Micros();
+
+    long getEventDeliveryP99Micros();
+
+    long getEventDeliveryMaxMicros();
+
+    long getSoundTriggerP50Micros();
+
+    long getSoundTriggerP99Micros();
+
+    long getSoundTriggerMaxMicros();
+
+    void reset();
+}
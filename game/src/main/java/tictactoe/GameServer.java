@@ -0,0 +1,268 @@
+package tictactoe;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Headless game server. Games live in the server, not the connection, so a
+// client can open many games, leave them idle and come back to them.
+//
+//   java tictactoe.GameServer [port]            (default 7777)
+//
+// Line protocol, one request and one reply per line:
+//   NEW [rows cols k] [EASY|MEDIUM|HARD]   -> OK <id>            at most 50x50; a level makes the server play O
+//   MOVE <id> <cell>                       -> OK <result> [AI <cell> <result>]
+//                                             result is NEXT, WIN X, WIN O or DRAW
+//   STATE <id>                             -> OK <cells> <toMove> <ACTIVE|OVER>   cells use X, O and .
+//   RESET <id> | CLOSE <id>                -> OK
+//   STATS                                  -> OK games <n> heapMB <used>
+//   PING                                   -> PONG
+//   WATCH <id>                             -> OK <cells> <toMove> <ACTIVE|OVER>, then one line per event:
+//                                             EVENT MOVE <player> <cell> <moveCount>, EVENT WIN <player> <cell>,
+//                                             EVENT DRAW, EVENT RESET <rows> <cols> <k>, MISSED <n>
+//                                             and END once the game is closed
+//   QUIT
+// Anything else gets ERR <reason>. Cells are row * cols + col. WATCH turns
+// the connection into a spectator stream for good; the game's events come
+// from a GameEventBus it gets on its first spectator, so a spectator that
+// can't keep up misses events rather than slowing the players down.
+//
+// Each connection gets its own thread: a virtual thread when the runtime
+// has them (Java 21+), otherwise a pooled platform thread.
+// AI decisions, move latency and finished games show up in GameMetrics
+// (JMX tictactoe:type=GameMetrics) and as tictactoe.AIDecision JFR events.
+public final class GameServer {
+    public static final int DEFAULT_PORT = 7777;
+
+    // How long a spectator with nothing to send waits before looking again
+    private static final long WATCH_POLL_NANOS = 1_000_000;
+
+    // The session plus the server-side opponent, if any; one of these per open game
+    private static final class ServerGame {
+        final GameSession session;
+        final AILevel aiLevel;
+        // Created for the first spectator; published to under the game's monitor
+        GameEventBus events;
+
+        ServerGame(GameSession session, AILevel aiLevel) {
+            this.session = session;
+            this.aiLevel = aiLevel;
+            session.setPlayers(null, aiLevel);
+        }
+    }
+
+    private final Map<Long, ServerGame> games = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final ExecutorService connections = connectionExecutor();
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        new GameServer().serve(port);
+    }
+
+    public void serve(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port)) {
+            System.out.println("Game server listening on port " + server.getLocalPort());
+            while (!server.isClosed()) {
+                Socket socket = server.accept();
+                connections.execute(() -> handle(socket));
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            socket.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.trim().equalsIgnoreCase("QUIT")) break;
+                String[] words = line.trim().split("\\s+");
+                if (words[0].equalsIgnoreCase("WATCH")) {
+                    watch(words, out);
+                    break;
+                }
+                out.write(respond(line));
+                out.write('\n');
+                // Only flush once the client has nothing more pipelined
+                if (!in.ready()) out.flush();
+            }
+        } catch (IOException e) {
+            // Client went away; its games stay until closed
+        }
+    }
+
+    // Streams the game's events to out until it is closed or the spectator goes away
+    private void watch(String[] words, Writer out) throws IOException {
+        ServerGame game;
+        try {
+            game = game(words);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            out.write("ERR " + (e.getMessage() != null ? e.getMessage() : "bad request") + "\n");
+            out.flush();
+            return;
+        }
+        GameEventBus.Cursor cursor;
+        synchronized (game) {
+            if (game.events == null) {
+                game.events = new GameEventBus();
+                game.session.publishTo(game.events);
+            }
+            cursor = game.events.cursor();
+            out.write(state(game));
+        }
+        out.write('\n');
+        out.flush();
+
+        long id = Long.parseLong(words[1]);
+        GameEvent event = new GameEvent();
+        boolean open = true;
+        while (open) {
+            // Checked before draining, so the last events of a closed game still go out
+            open = games.get(id) == game;
+            if (!sendEvents(cursor, event, out) && open) LockSupport.parkNanos(WATCH_POLL_NANOS);
+        }
+        out.write("END\n");
+        out.flush();
+    }
+
+    // Writes every event waiting on cursor; false if there were none
+    private static boolean sendEvents(GameEventBus.Cursor cursor, GameEvent event, Writer out) throws IOException {
+        long missed = cursor.missed();
+        boolean wrote = false;
+        while (cursor.poll(event)) {
+            if (cursor.missed() != missed) {
+                out.write("MISSED " + (cursor.missed() - missed) + "\n");
+                missed = cursor.missed();
+            }
+            out.write("EVENT " + event + "\n");
+            wrote = true;
+        }
+        if (wrote) out.flush();
+        return wrote;
+    }
+
+    String respond(String line) {
+        String[] words = line.trim().split("\\s+");
+        try {
+            switch (words[0].toUpperCase()) {
+                case "NEW": return newGame(words);
+                case "MOVE": return move(game(words), Integer.parseInt(words[2]));
+                case "STATE": return state(game(words));
+                case "RESET": {
+                    ServerGame game = game(words);
+                    synchronized (game) {
+                        game.session.reset();
+                    }
+                    return "OK";
+                }
+                case "CLOSE":
+                    return games.remove(Long.parseLong(words[1])) != null ? "OK" : "ERR no such game";
+                case "STATS": {
+                    Runtime runtime = Runtime.getRuntime();
+                    long usedMb = (runtime.totalMemory() - runtime.freeMemory()) >> 20;
+                    return "OK games " + games.size() + " heapMB " + usedMb;
+                }
+                case "PING": return "PONG";
+                default: return "ERR unknown command";
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return "ERR " + (e.getMessage() != null ? e.getMessage() : "bad request");
+        }
+    }
+
+    private String newGame(String[] words) {
+        int rows = 3;
+        int cols = 3;
+        int k = 3;
+        int next = 1;
+        if (words.length >= 4) {
+            rows = Integer.parseInt(words[1]);
+            cols = Integer.parseInt(words[2]);
+            k = Integer.parseInt(words[3]);
+            next = 4;
+        }
+        // Capped so no one client can take the shared heap
+        if (!MnkBoard.isSupported(rows, cols, k)) {
+            throw new IllegalArgumentException("bad board size");
+        }
+        AILevel level = words.length > next ? AILevel.valueOf(words[next].toUpperCase()) : null;
+        long id = nextId.getAndIncrement();
+        games.put(id, new ServerGame(new GameSession(rows, cols, k), level));
+        return "OK " + id;
+    }
+
+    private ServerGame game(String[] words) {
+        ServerGame game = games.get(Long.parseLong(words[1]));
+        if (game == null) throw new IllegalArgumentException("no such game");
+        return game;
+    }
+
+    private static String move(ServerGame game, int cell) {
+        synchronized (game) {
+            GameSession session = game.session;
+            char mover = session.currentPlayer();
+            GameSession.MoveResult result = session.play(cell);
+            if (result == GameSession.MoveResult.ILLEGAL) return "ERR illegal move";
+            String reply = "OK " + describe(result, mover);
+            if (result == GameSession.MoveResult.NEXT_TURN && game.aiLevel != null) {
+                char ai = session.currentPlayer();
+                AIDecisionEvent event = new AIDecisionEvent();
+                event.begin();
+                long start = System.nanoTime();
+                int aiMove = GameAI.getBestMove(game.aiLevel, session.board(), ai, ThreadLocalRandom.current());
+                GameMetrics.get().recordDecision(event, game.aiLevel, session.board(), aiMove, 0, 0, 0,
+                    System.nanoTime() - start);
+                reply += " AI " + aiMove + " " + describe(session.play(aiMove), ai);
+            }
+            return reply;
+        }
+    }
+
+    private static String describe(GameSession.MoveResult result, char mover) {
+        switch (result) {
+            case WIN: return "WIN " + mover;
+            case DRAW: return "DRAW";
+            default: return "NEXT";
+        }
+    }
+
+    private static String state(ServerGame game) {
+        synchronized (game) {
+            MnkBoard board = game.session.board();
+            StringBuilder cells = new StringBuilder(board.cellCount());
+            for (int cell = 0; cell < board.cellCount(); cell++) {
+                char c = board.get(cell);
+                cells.append(c == ' ' ? '.' : c);
+            }
+            return "OK " + cells + " " + game.session.currentPlayer() + " " + (game.session.isActive() ? "ACTIVE" : "OVER");
+        }
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() on runtimes that have it, a cached pool otherwise
+    private static ExecutorService connectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "game-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package tictactoe;
+
+// One game's rules and state with no UI attached: the board, whose turn it
+// is, whether the game is still running, the moves played so far and the
+// running score. Main drives one of these from Swing and GameServer keeps
+// one per remote game, so it is kept small. It is not thread-safe; callers
+// serialize access.
+//
+// Once given a GameEventBus it publishes every move, the end of every game
+// and every reset there, for the GUI, the journal and spectators to follow.
+public final class GameSession {
+    public enum MoveResult { ILLEGAL, NEXT_TURN, WIN, DRAW }
+
+    private MnkBoard board;
+    private int[] moves;
+    private char currentPlayer = 'X';
+    private boolean active = true;
+    private int[] winningCells;
+    private int xWins;
+    private int oWins;
+    private int draws;
+    private GameEventBus events;
+    private long game;
+    private AILevel xPlayer;
+    private AILevel oPlayer;
+
+    public GameSession(int rows, int cols, int k) {
+        this.board = new MnkBoard(rows, cols, k);
+        this.moves = new int[board.cellCount()];
+    }
+
+    // Read-only use: moves must go through play so the turn and score stay consistent
+    public MnkBoard board() {
+        return board;
+    }
+
+    public char currentPlayer() {
+        return currentPlayer;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    // Cells in the order they were played; only the first board().moveCount() entries are this game's
+    public int[] moves() {
+        return moves;
+    }
+
+    // Cells of the completed line once the game is won, otherwise null
+    public int[] winningCells() {
+        return winningCells;
+    }
+
+    public int xWins() {
+        return xWins;
+    }
+
+    public int oWins() {
+        return oWins;
+    }
+
+    public int draws() {
+        return draws;
+    }
+
+    // Counts games: each reset starts a new one, and events carry it
+    public long game() {
+        return game;
+    }
+
+    // Publishes to events from now on (null stops); callers of play and reset become its publisher
+    public void publishTo(GameEventBus events) {
+        this.events = events;
+    }
+
+    // Who plays X and O from now on, as reported in events; null is a human
+    public void setPlayers(AILevel x, AILevel o) {
+        this.xPlayer = x;
+        this.oPlayer = o;
+    }
+
+    // Plays cell for the side to move. On WIN currentPlayer stays the winner.
+    public MoveResult play(int cell) {
+        long start = System.nanoTime();
+        MoveResult result = apply(cell);
+        GameMetrics metrics = GameMetrics.get();
+        metrics.move.record(System.nanoTime() - start);
+        if (result == MoveResult.WIN || result == MoveResult.DRAW) metrics.gameCompleted();
+        if (events != null && result != MoveResult.ILLEGAL) {
+            publish(GameEvent.Type.MOVE_PLAYED, cell);
+            if (result == MoveResult.WIN) publish(GameEvent.Type.GAME_WON, cell);
+            if (result == MoveResult.DRAW) publish(GameEvent.Type.GAME_DRAWN, cell);
+        }
+        return result;
+    }
+
+    // player is whoever just moved: on NEXT_TURN currentPlayer has already passed to the other side
+    private void publish(GameEvent.Type type, int cell) {
+        char player = board.get(cell);
+        events.publish(type, game, player, cell, board.moveCount(), board.rows(), board.cols(), board.k(), xPlayer, oPlayer);
+    }
+
+    private MoveResult apply(int cell) {
+        if (!active || cell < 0 || cell >= board.cellCount() || !board.isEmpty(cell)) {
+            return MoveResult.ILLEGAL;
+        }
+        moves[board.moveCount()] = cell;
+        board.play(cell, currentPlayer);
+
+        // Only lines through the last move can have been completed by it
+        winningCells = board.winningCells(cell);
+        if (winningCells != null) {
+            active = false;
+            if (currentPlayer == 'X') xWins++; else oWins++;
+            return MoveResult.WIN;
+        }
+        if (board.isFull()) {
+            active = false;
+            draws++;
+            return MoveResult.DRAW;
+        }
+        currentPlayer = (currentPlayer == 'X') ? 'O' : 'X';
+        return MoveResult.NEXT_TURN;
+    }
+
+    // Starts a new game on the same board; the score carries over
+    public void reset() {
+        board.clear();
+        currentPlayer = 'X';
+        active = true;
+        winningCells = null;
+        game++;
+        if (events != null) {
+            events.publish(GameEvent.Type.RESET, game, currentPlayer, -1, 0, board.rows(), board.cols(), board.k(),
+                xPlayer, oPlayer);
+        }
+    }
+
+    // Starts a new game on a board of a different size; the score carries over
+    public void resize(int rows, int cols, int k) {
+        board = new MnkBoard(rows, cols, k);
+        moves = new int[board.cellCount()];
+        reset();
+    }
+}
@@ -0,0 +1,289 @@
+package tictactoe;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Depth-limited negamax with alpha-beta over an MnkBoard, run by iterative
+// deepening so that when the time or node budget runs out there is always a
+// best move from the last completed depth to hand back. The search polls the
+// budget and the thread's interrupt flag, so cancelling the owning Future
+// stops it within a few thousand nodes.
+//
+// Only cells within two steps of an existing stone are searched, which keeps
+// the branching factor sane on gomoku-sized boards. Leaves are scored by a
+// PatternEvaluator that follows every move and takeback, so a leaf costs
+// O(1) rather than a scan of the board; for k beyond its tables they are
+// scored by counting the k-cell windows that only one side occupies.
+//
+// Given a TranspositionTable, every node looks its position up first: a
+// result from an earlier iteration (or another thread) that is deep enough
+// cuts the node off, and otherwise its best move is searched first. This is
+// what ParallelSearch builds on: several searches of the same root share one
+// table, the helpers (worker > 0) shuffling their move order and starting at
+// alternate depths so they fill the table ahead of worker 0 rather than
+// repeating its work. A shared stop flag ends them all together.
+public final class IterativeSearch {
+    public static final int WIN_SCORE = 100_000_000;
+
+    static final int MAX_DEPTH = 64;
+    private static final int CHECK_INTERVAL = 1023;
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private final MnkBoard board;
+    private final long deadline;
+    private final long nodeBudget;
+    private final MoveList[] movesByPly;
+    private final PatternEvaluator patterns;
+    private final int[] windowWeights;
+    private final TranspositionTable table;
+    private final int worker;
+    private final AtomicBoolean stop;
+    private final SplittableRandom shuffle;
+    private int depthLimit = MAX_DEPTH;
+    private long hash;
+    private long nodes;
+    private long tableProbes;
+    private long tableHits;
+    private boolean stopped;
+    private int lastRootScore;
+
+    // Searches a private copy of board; timeBudgetMillis or nodeBudget <= 0 means unlimited
+    public IterativeSearch(MnkBoard board, long timeBudgetMillis, long nodeBudget) {
+        this(board, timeBudgetMillis, nodeBudget, null, 0, null);
+    }
+
+    // table and stop may be null; worker 0 searches in the usual order, others vary it
+    IterativeSearch(MnkBoard board, long timeBudgetMillis, long nodeBudget, TranspositionTable table, int worker,
+                    AtomicBoolean stop) {
+        this.board = new MnkBoard(board);
+        this.deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000 : Long.MAX_VALUE;
+        this.nodeBudget = nodeBudget > 0 ? nodeBudget : Long.MAX_VALUE;
+        this.movesByPly = new MoveList[MAX_DEPTH + 1];
+        for (int i = 0; i < movesByPly.length; i++) {
+            movesByPly[i] = new MoveList(board.cellCount());
+        }
+        this.patterns = PatternEvaluator.supports(board.k()) ? new PatternEvaluator(this.board) : null;
+        // A window holding n stones of one side is worth 4^n
+        this.windowWeights = new int[board.k() + 1];
+        for (int n = 1; n <= board.k(); n++) {
+            windowWeights[n] = 1 << (2 * n);
+        }
+        this.table = table;
+        this.worker = worker;
+        this.stop = stop;
+        this.shuffle = worker > 0 ? new SplittableRandom(worker) : null;
+        this.hash = table != null ? TranspositionTable.hash(board) : 0;
+    }
+
+    // Stops the iterations once this depth is complete
+    void limitDepth(int depth) {
+        depthLimit = Math.min(MAX_DEPTH, depth);
+    }
+
+    // fallbackMove is returned if not even depth 1 finishes inside the budget
+    public SearchResult search(char player, int fallbackMove) {
+        int bestMove = fallbackMove;
+        int bestScore = 0;
+        int completedDepth = 0;
+        int maxDepth = Math.min(depthLimit, board.emptyCount());
+        if (table != null) {
+            // Lead with the move an earlier search of this position (or another worker) found
+            int tableMove = TranspositionTable.move(probe());
+            if (tableMove >= 0 && tableMove < board.cellCount() && board.isEmpty(tableMove)) bestMove = tableMove;
+        }
+        // Odd helpers run one depth ahead of worker 0
+        for (int depth = 1 + (worker & 1); depth <= maxDepth; depth++) {
+            int move = searchRoot(player, depth, bestMove);
+            if (stopped) break;
+            bestMove = move;
+            bestScore = lastRootScore;
+            completedDepth = depth;
+            if (table != null) table.store(hash, bestMove, bestScore, depth, TranspositionTable.EXACT);
+            // A forced result won't change with more depth
+            if (Math.abs(bestScore) >= WIN_SCORE - MAX_DEPTH) break;
+        }
+        boolean complete = !stopped;
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, complete);
+    }
+
+    public long nodes() {
+        return nodes;
+    }
+
+    // Transposition table lookups so far, and how many found their position
+    public long tableProbes() {
+        return tableProbes;
+    }
+
+    public long tableHits() {
+        return tableHits;
+    }
+
+    private long probe() {
+        long entry = table.probe(hash);
+        tableProbes++;
+        if (entry != TranspositionTable.MISS) tableHits++;
+        return entry;
+    }
+
+    private int searchRoot(char player, int depth, int firstMove) {
+        MoveList moves = movesByPly[0];
+        generateCandidates(moves, firstMove);
+        char opponent = player == 'X' ? 'O' : 'X';
+        int alpha = -WIN_SCORE - 1;
+        int bestMove = -1;
+        for (int i = 0; i < moves.size(); i++) {
+            int cell = moves.get(i);
+            int score;
+            if (board.completesLine(cell, player)) {
+                score = WIN_SCORE - 1;
+            } else {
+                play(cell, player);
+                score = board.isFull() ? 0 : -negamax(opponent, depth - 1, 1, -WIN_SCORE - 1, -alpha);
+                undo(cell, player);
+            }
+            if (stopped) return bestMove;
+            if (score > alpha) {
+                alpha = score;
+                bestMove = cell;
+            }
+        }
+        lastRootScore = alpha;
+        return bestMove;
+    }
+
+    private int negamax(char player, int depth, int ply, int alpha, int beta) {
+        if ((++nodes & CHECK_INTERVAL) == 0) checkBudget();
+        if (stopped) return 0;
+        if (depth == 0) return evaluate(player);
+
+        int tableMove = -1;
+        if (table != null) {
+            long entry = probe();
+            if (entry != TranspositionTable.MISS) {
+                tableMove = TranspositionTable.move(entry);
+                if (TranspositionTable.depth(entry) >= depth) {
+                    int score = fromTable(TranspositionTable.score(entry), ply);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                        return score;
+                    }
+                }
+            }
+        }
+
+        MoveList moves = movesByPly[ply];
+        generateCandidates(moves, tableMove);
+        char opponent = player == 'X' ? 'O' : 'X';
+        // Winning now beats anything a deeper line could find
+        for (int i = 0; i < moves.size(); i++) {
+            if (board.completesLine(moves.get(i), player)) return WIN_SCORE - ply - 1;
+        }
+
+        int originalAlpha = alpha;
+        int best = -WIN_SCORE - 1;
+        int bestMove = -1;
+        for (int i = 0; i < moves.size(); i++) {
+            int cell = moves.get(i);
+            play(cell, player);
+            int score = board.isFull() ? 0 : -negamax(opponent, depth - 1, ply + 1, -beta, -alpha);
+            undo(cell, player);
+            if (stopped) return 0;
+            if (score > best) {
+                best = score;
+                bestMove = cell;
+            }
+            if (best > alpha) alpha = best;
+            if (alpha >= beta) break;
+        }
+        if (table != null) {
+            int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(hash, bestMove, toTable(best, ply), depth, bound);
+        }
+        return best;
+    }
+
+    // Wins and losses are stored as distances from the node rather than the root, so they hold wherever it recurs
+    private static int toTable(int score, int ply) {
+        if (score >= WIN_SCORE - 2 * MAX_DEPTH) return score + ply;
+        if (score <= -WIN_SCORE + 2 * MAX_DEPTH) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN_SCORE - 2 * MAX_DEPTH) return score - ply;
+        if (score <= -WIN_SCORE + 2 * MAX_DEPTH) return score + ply;
+        return score;
+    }
+
+    private void play(int cell, char player) {
+        board.play(cell, player);
+        if (patterns != null) patterns.play(cell, player);
+        if (table != null) hash ^= TranspositionTable.zobrist(cell, player);
+    }
+
+    private void undo(int cell, char player) {
+        board.undo(cell);
+        if (patterns != null) patterns.undo(cell, player);
+        if (table != null) hash ^= TranspositionTable.zobrist(cell, player);
+    }
+
+    private void checkBudget() {
+        if (nodes >= nodeBudget || System.nanoTime() >= deadline || Thread.currentThread().isInterrupted()
+            || (stop != null && stop.get())) {
+            stopped = true;
+        }
+    }
+
+    // Empty cells within two steps of a stone, with firstMove (if it is one of them) searched first;
+    // helpers shuffle the rest
+    private void generateCandidates(MoveList moves, int firstMove) {
+        board.generateNearbyMoves(moves, 2);
+        int from = 0;
+        if (firstMove >= 0) {
+            for (int i = 0; i < moves.size(); i++) {
+                if (moves.get(i) == firstMove) {
+                    moves.swap(0, i);
+                    from = 1;
+                    break;
+                }
+            }
+        }
+        if (shuffle == null) return;
+        for (int i = moves.size() - 1; i > from; i--) {
+            moves.swap(i, from + shuffle.nextInt(i - from + 1));
+        }
+    }
+
+    private int evaluate(char player) {
+        return patterns != null ? patterns.evaluate(player) : countWindows(player);
+    }
+
+    // Sum over all k-cell windows held by one side only, from player's point of view
+    private int countWindows(char player) {
+        int k = board.k();
+        int score = 0;
+        for (int[] d : DIRECTIONS) {
+            for (int row = 0; row < board.rows(); row++) {
+                for (int col = 0; col < board.cols(); col++) {
+                    int endRow = row + (k - 1) * d[0];
+                    int endCol = col + (k - 1) * d[1];
+                    if (!board.inBounds(endRow, endCol)) continue;
+                    int mine = 0;
+                    int theirs = 0;
+                    for (int i = 0; i < k; i++) {
+                        char c = board.get(row + i * d[0], col + i * d[1]);
+                        if (c == player) mine++;
+                        else if (c != ' ') theirs++;
+                    }
+                    if (theirs == 0) score += windowWeights[mine];
+                    else if (mine == 0) score -= windowWeights[theirs];
+                }
+            }
+        }
+        return score;
+    }
+}
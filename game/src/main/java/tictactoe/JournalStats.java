@@ -0,0 +1,192 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Aggregate queries over a GameJournal file: results per board and pairing of
+// players, average game length, and how often each opening move is played.
+//
+//   java tictactoe.JournalStats <journal> [top openings]   (default 5)
+//
+// The file is memory-mapped in windows of up to WINDOW_BYTES and scanned once
+// in place, so the heap only holds the tallies; moves after the first are
+// skipped without being decoded. A torn record at the end of the file (from a
+// crash mid-write) is reported and ignored; so is everything from the first
+// record header that no writer could have produced, with its offset.
+public final class JournalStats {
+    private static final long WINDOW_BYTES = 1L << 30;
+
+    // Tallies for one board geometry and pairing of players
+    static final class Matchup {
+        long games;
+        long xWins;
+        long oWins;
+        long draws;
+        long moves;
+    }
+
+    // Tallies for one board geometry
+    static final class Geometry {
+        final int rows;
+        final int cols;
+        final int k;
+        final long[] openings;
+        final Matchup[] matchups = new Matchup[GameJournal.MAX_PLAYERS * GameJournal.MAX_PLAYERS];
+
+        Geometry(int rows, int cols, int k) {
+            this.rows = rows;
+            this.cols = cols;
+            this.k = k;
+            this.openings = new long[rows * cols];
+        }
+    }
+
+    // Keyed by rows << 16 | cols << 8 | k, so geometries print in size order
+    final Map<Integer, Geometry> geometries = new TreeMap<>();
+    long games;
+    long tornBytes;
+    // A record header no writer produces stopped the scan; tornBytes then counts from there
+    boolean corrupt;
+    long tailOffset;
+
+    static JournalStats scan(Path path) throws IOException {
+        JournalStats stats = new JournalStats();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(GameJournal.FILE_HEADER_BYTES);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < GameJournal.FILE_HEADER_BYTES || header.getInt() != GameJournal.MAGIC
+                || header.getInt() != GameJournal.VERSION) {
+                throw new IOException(path + " is not a version " + GameJournal.VERSION + " game journal");
+            }
+
+            // Records never straddle windows: each window restarts at the first record the last one could not finish
+            long position = GameJournal.FILE_HEADER_BYTES;
+            while (position < size) {
+                long length = Math.min(WINDOW_BYTES, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int consumed = stats.scanWindow(window);
+                position += consumed;
+                if (consumed == 0 || stats.corrupt) break;
+            }
+            stats.tornBytes = size - position;
+            stats.tailOffset = position;
+        }
+        return stats;
+    }
+
+    // Tallies every complete record in window and returns how many bytes they took
+    private int scanWindow(ByteBuffer window) {
+        int limit = window.limit();
+        int position = 0;
+        Geometry geometry = null;
+        int geometryKey = -1;
+        while (limit - position >= GameJournal.RECORD_HEADER_BYTES) {
+            int rows = window.get(position) & 0xFF;
+            int cols = window.get(position + 1) & 0xFF;
+            int k = window.get(position + 2) & 0xFF;
+            int meta = window.get(position + 3) & 0xFF;
+            int moveCount = window.getShort(position + 4) & 0xFFFF;
+            if (!GameJournal.isValidRecord(rows, cols, k, meta, moveCount)) {
+                corrupt = true;
+                break;
+            }
+            int cellCount = rows * cols;
+            int bytes = GameJournal.recordBytes(cellCount, moveCount);
+            if (limit - position < bytes) break;
+            int opening = -1;
+            if (moveCount > 0) {
+                int bits = GameJournal.moveBits(cellCount);
+                int head = (window.get(position + 6) & 0xFF) << 8
+                    | (bits > 8 ? window.get(position + 7) & 0xFF : 0);
+                opening = head >>> (16 - bits);
+                if (opening >= cellCount) {
+                    corrupt = true;
+                    break;
+                }
+            }
+
+            int key = rows << 16 | cols << 8 | k;
+            if (key != geometryKey) {
+                geometry = geometries.computeIfAbsent(key, unused -> new Geometry(rows, cols, k));
+                geometryKey = key;
+            }
+            int pairing = (meta >>> 2 & 7) * GameJournal.MAX_PLAYERS + (meta >>> 5 & 7);
+            Matchup matchup = geometry.matchups[pairing];
+            if (matchup == null) matchup = geometry.matchups[pairing] = new Matchup();
+            matchup.games++;
+            matchup.moves += moveCount;
+            switch (meta & 3) {
+                case 1: matchup.xWins++; break;
+                case 2: matchup.oWins++; break;
+                default: matchup.draws++; break;
+            }
+            if (opening >= 0) geometry.openings[opening]++;
+            games++;
+            position += bytes;
+        }
+        return position;
+    }
+
+    private static String player(int code) {
+        if (code == 0) return "Human";
+        AILevel[] levels = AILevel.values();
+        return code - 1 < levels.length ? levels[code - 1].name() : "Level" + (code - 1);
+    }
+
+    void print(int topOpenings) {
+        System.out.printf("%,d games%n", games);
+        for (Geometry geometry : geometries.values()) {
+            System.out.printf("%n%dx%d (k=%d)%n", geometry.rows, geometry.cols, geometry.k);
+            System.out.printf("  %-22s %14s %8s %8s %8s %9s%n", "X vs O", "games", "X wins", "O wins", "draws", "avg len");
+            for (int pairing = 0; pairing < geometry.matchups.length; pairing++) {
+                Matchup m = geometry.matchups[pairing];
+                if (m == null) continue;
+                String label = player(pairing / GameJournal.MAX_PLAYERS) + " vs " + player(pairing % GameJournal.MAX_PLAYERS);
+                System.out.printf("  %-22s %,14d %7.2f%% %7.2f%% %7.2f%% %9.2f%n", label, m.games,
+                    100.0 * m.xWins / m.games, 100.0 * m.oWins / m.games, 100.0 * m.draws / m.games,
+                    (double) m.moves / m.games);
+            }
+
+            long opened = 0;
+            for (long count : geometry.openings) opened += count;
+            boolean[] shown = new boolean[geometry.openings.length];
+            System.out.println("  Openings:");
+            for (int n = 0; n < topOpenings && n < geometry.openings.length; n++) {
+                int best = -1;
+                for (int cell = 0; cell < geometry.openings.length; cell++) {
+                    if (!shown[cell] && (best < 0 || geometry.openings[cell] > geometry.openings[best])) best = cell;
+                }
+                if (geometry.openings[best] == 0) break;
+                shown[best] = true;
+                System.out.printf("    (%d,%d) %,14d %7.2f%%%n", best / geometry.cols, best % geometry.cols,
+                    geometry.openings[best], 100.0 * geometry.openings[best] / opened);
+            }
+        }
+        if (corrupt) {
+            System.out.printf("%nCorrupt tail at offset %,d: ignored the last %,d bytes%n", tailOffset, tornBytes);
+        } else if (tornBytes > 0) {
+            System.out.printf("%nIgnored %d bytes of a torn final record%n", tornBytes);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java tictactoe.JournalStats <journal> [top openings]");
+            return;
+        }
+        int top = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long start = System.nanoTime();
+        JournalStats stats = scan(Path.of(args[0]));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        stats.print(top);
+        System.out.printf("%nScanned in %.2f s (%,.0f games/s)%n", seconds, stats.games / seconds);
+    }
+}
@@ -0,0 +1,519 @@
+package tictactoe;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+import javax.swing.Timer;
+
+public class Main extends JFrame {
+    private static final Color BACKGROUND_COLOR = new Color(45, 52, 54);
+    private static final Color BUTTON_COLOR = new Color(99, 110, 114);
+    private static final Color TEXT_COLOR = Color.WHITE;
+    private static final Font STATUS_FONT = new Font("Arial", Font.BOLD, 18);
+
+    private BoardView boardView;
+    private GameSession session;
+    private JLabel statusLabel;
+    private JButton resetButton;
+
+    // Enhanced features
+    private JLabel scoreLabel;
+    private boolean isAIMode = false;
+    private char aiPlayer = 'O';
+    private AILevel aiLevel = AILevel.MEDIUM;
+    private JComboBox<String> gameModeCombo;
+    private JComboBox<AILevel> difficultyCombo;
+    private JComboBox<BoardVariant> variantCombo;
+    private BoardVariant variant = BoardVariant.CLASSIC;
+    private Timer animationTimer;
+    private int animationTicks;
+    private final AIService aiService = new AIService();
+    private Future<?> pendingAIMove;
+    // Searching the position the AI expects after the human's reply, while the human thinks
+    private AIService.Ponder ponder;
+    private int gameGeneration;
+    private GameJournal journal;
+    private GameEventBus.Subscription journalSubscription;
+    private JCheckBox hintsCheckBox;
+    private JCheckBox ponderCheckBox;
+    private Future<?> pendingAnalysis;
+
+    // Moves, game ends and resets go out on this bus; the board, labels and sounds follow it
+    // like the journal and metrics do, so nothing here updates them directly
+    private final GameEventBus events = new GameEventBus();
+
+    // Clips are rendered and their lines opened once, here; playing one only wakes the audio thread
+    private final GameAudio audio = new GameAudio();
+
+    // Click-to-screen latency: the runnable is queued behind the repaint the click's move event caused
+    private long clickNanos;
+    private boolean inputPending;
+    private final Runnable recordInputLatency = () -> GameMetrics.get().input.record(System.nanoTime() - clickNanos);
+
+    // Finished games are appended here; override with -Dtictactoe.journal=<file>
+    private static final String JOURNAL_PATH = System.getProperty("tictactoe.journal",
+        Path.of(System.getProperty("user.home"), ".tictactoe", "games.tttj").toString());
+
+    // AI replies wait at least this long so they don't feel abrupt; big-board searches get the budget
+    private static final long AI_MIN_THINK_MILLIS = 500;
+    private static final long AI_TIME_BUDGET_MILLIS = 1500;
+    private static final long HINT_TIME_BUDGET_MILLIS = 1000;
+    private static final Color HINT_GOOD_COLOR = new Color(120, 224, 143);
+    private static final Color HINT_DRAW_COLOR = new Color(200, 200, 200);
+    private static final Color HINT_BAD_COLOR = new Color(255, 150, 150);
+
+    // The winning line flashes every ANIMATION_MILLIS for ANIMATION_TICKS steps (3 seconds)
+    private static final int ANIMATION_MILLIS = 200;
+    private static final int ANIMATION_TICKS = 15;
+
+    // Board geometry: rows x cols with k in a row to win
+    enum BoardVariant {
+        CLASSIC("3x3", 3, 3, 3), FOUR("4x4, 4 in a row", 4, 4, 4),
+        SEVEN("7x7, 5 in a row", 7, 7, 5), GOMOKU("15x15 Gomoku", 15, 15, 5),
+        NINETEEN("19x19, 5 in a row", 19, 19, 5), FIFTY("50x50, 5 in a row", MnkBoard.MAX_SIZE, MnkBoard.MAX_SIZE, 5);
+        private final String displayName;
+        final int rows, cols, k;
+        BoardVariant(String displayName, int rows, int cols, int k) {
+            this.displayName = displayName;
+            this.rows = rows;
+            this.cols = cols;
+            this.k = k;
+        }
+        @Override
+        public String toString() { return displayName; }
+    }
+
+    public Main() {
+        initializeGame();
+        setupGUI();
+        openJournal();
+        subscribeToEvents();
+        resetGame();
+    }
+
+    private void subscribeToEvents() {
+        session.publishTo(events);
+        updatePlayers();
+        events.subscribe("gui", this::onGameEvent);
+        events.subscribe("metrics", GameMetrics.get().recorder());
+        if (journal != null) journalSubscription = events.subscribe("journal", journal.recorder());
+    }
+
+    private void updatePlayers() {
+        session.setPlayers(isAIMode && aiPlayer == 'X' ? aiLevel : null, isAIMode && aiPlayer == 'O' ? aiLevel : null);
+    }
+
+    // The game still works without a journal, it just doesn't record anything
+    private void openJournal() {
+        try {
+            journal = GameJournal.open(Path.of(JOURNAL_PATH));
+        } catch (IOException e) {
+            System.err.println("Game journal disabled: " + e.getMessage());
+            return;
+        }
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                try {
+                    // Give the recorder a moment to write a game that has only just ended
+                    for (int i = 0; i < 100 && journalSubscription != null && journalSubscription.lag() > 0; i++) {
+                        LockSupport.parkNanos(1_000_000);
+                    }
+                    if (journalSubscription != null) journalSubscription.close();
+                    audio.close();
+                    journal.close();
+                } catch (IOException ex) {
+                    System.err.println("Could not close game journal: " + ex.getMessage());
+                }
+            }
+        });
+    }
+
+    private void initializeGame() {
+        if (session == null) {
+            session = new GameSession(variant.rows, variant.cols, variant.k);
+        } else {
+            session.resize(variant.rows, variant.cols, variant.k);
+        }
+    }
+
+    private void setupGUI() {
+        setTitle("Tic-Tac-Toe");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setLayout(new BorderLayout());
+        setResizable(false);
+        getContentPane().setBackground(BACKGROUND_COLOR);
+
+        // Create main panel
+        JPanel mainPanel = new JPanel(new BorderLayout());
+        mainPanel.setBackground(BACKGROUND_COLOR);
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        // Create status panel
+        JPanel statusPanel = createStatusPanel();
+        mainPanel.add(statusPanel, BorderLayout.NORTH);
+
+        // Create game board
+        boardView = new BoardView(this::handleCellClick);
+        boardView.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
+        boardView.setBoard(session.board());
+        mainPanel.add(boardView, BorderLayout.CENTER);
+
+        animationTimer = new Timer(ANIMATION_MILLIS, e -> {
+            boardView.toggleWinFlash();
+            if (++animationTicks >= ANIMATION_TICKS) animationTimer.stop();
+        });
+
+        // Create control panel
+        JPanel controlPanel = createControlPanel();
+        mainPanel.add(controlPanel, BorderLayout.SOUTH);
+
+        add(mainPanel);
+        pack();
+        setLocationRelativeTo(null);
+    }
+
+    private JPanel createStatusPanel() {
+        JPanel statusPanel = new JPanel(new BorderLayout());
+        statusPanel.setBackground(BACKGROUND_COLOR);
+        statusPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 20, 0));
+
+        // Game status
+        statusLabel = new JLabel("Player X's Turn");
+        statusLabel.setFont(STATUS_FONT);
+        statusLabel.setForeground(TEXT_COLOR);
+        statusLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        // Score display
+        scoreLabel = new JLabel("X: 0  |  O: 0  |  Draws: 0");
+        scoreLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        scoreLabel.setForeground(new Color(200, 200, 200));
+        scoreLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        // Game mode and difficulty controls
+        JPanel controlsPanel = createGameControlsPanel();
+
+        statusPanel.add(statusLabel, BorderLayout.CENTER);
+        statusPanel.add(scoreLabel, BorderLayout.NORTH);
+        statusPanel.add(controlsPanel, BorderLayout.SOUTH);
+
+        return statusPanel;
+    }
+
+    private JPanel createGameControlsPanel() {
+        JPanel controlsPanel = new JPanel(new FlowLayout());
+        controlsPanel.setBackground(BACKGROUND_COLOR);
+        controlsPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
+
+        // Game mode selection
+        JLabel modeLabel = new JLabel("Mode:");
+        modeLabel.setForeground(TEXT_COLOR);
+        modeLabel.setFont(new Font("Arial", Font.BOLD, 12));
+
+        gameModeCombo = new JComboBox<>(new String[]{"Player vs Player", "Player vs AI"});
+        gameModeCombo.setBackground(BUTTON_COLOR);
+        gameModeCombo.setForeground(TEXT_COLOR);
+        gameModeCombo.addActionListener(e -> {
+            isAIMode = gameModeCombo.getSelectedIndex() == 1;
+            difficultyCombo.setEnabled(isAIMode);
+            ponderCheckBox.setEnabled(isAIMode);
+            updatePlayers();
+            resetGame();
+        });
+
+        // AI difficulty selection
+        JLabel diffLabel = new JLabel("Difficulty:");
+        diffLabel.setForeground(TEXT_COLOR);
+        diffLabel.setFont(new Font("Arial", Font.BOLD, 12));
+
+        difficultyCombo = new JComboBox<>(AILevel.values());
+        difficultyCombo.setBackground(BUTTON_COLOR);
+        difficultyCombo.setForeground(TEXT_COLOR);
+        difficultyCombo.setEnabled(false);
+        difficultyCombo.addActionListener(e -> {
+            aiLevel = (AILevel) difficultyCombo.getSelectedItem();
+            updatePlayers();
+            // A ponder for the old level is no use to the new one
+            startPondering();
+        });
+
+        // Board size selection
+        JLabel boardLabel = new JLabel("Board:");
+        boardLabel.setForeground(TEXT_COLOR);
+        boardLabel.setFont(new Font("Arial", Font.BOLD, 12));
+
+        variantCombo = new JComboBox<>(BoardVariant.values());
+        variantCombo.setBackground(BUTTON_COLOR);
+        variantCombo.setForeground(TEXT_COLOR);
+        variantCombo.addActionListener(e -> changeVariant((BoardVariant) variantCombo.getSelectedItem()));
+
+        // Per-cell move scores for the side to move
+        hintsCheckBox = new JCheckBox("Hints");
+        hintsCheckBox.setBackground(BACKGROUND_COLOR);
+        hintsCheckBox.setForeground(TEXT_COLOR);
+        hintsCheckBox.setFont(new Font("Arial", Font.BOLD, 12));
+        hintsCheckBox.setFocusPainted(false);
+        hintsCheckBox.addActionListener(e -> refreshHints());
+
+        // Let the AI search on while it is the human's turn
+        ponderCheckBox = new JCheckBox("Ponder");
+        ponderCheckBox.setBackground(BACKGROUND_COLOR);
+        ponderCheckBox.setForeground(TEXT_COLOR);
+        ponderCheckBox.setFont(new Font("Arial", Font.BOLD, 12));
+        ponderCheckBox.setFocusPainted(false);
+        ponderCheckBox.setEnabled(false);
+        ponderCheckBox.addActionListener(e -> startPondering());
+
+        controlsPanel.add(modeLabel);
+        controlsPanel.add(gameModeCombo);
+        controlsPanel.add(Box.createHorizontalStrut(20));
+        controlsPanel.add(diffLabel);
+        controlsPanel.add(difficultyCombo);
+        controlsPanel.add(Box.createHorizontalStrut(20));
+        controlsPanel.add(boardLabel);
+        controlsPanel.add(variantCombo);
+        controlsPanel.add(Box.createHorizontalStrut(20));
+        controlsPanel.add(hintsCheckBox);
+        controlsPanel.add(ponderCheckBox);
+
+        return controlsPanel;
+    }
+
+    private void changeVariant(BoardVariant newVariant) {
+        if (newVariant == variant) return;
+        variant = newVariant;
+        initializeGame();
+
+        // The view resizes itself for the new grid
+        boardView.setBoard(session.board());
+        resetGame();
+        pack();
+        setLocationRelativeTo(null);
+    }
+
+    private JPanel createControlPanel() {
+        JPanel controlPanel = new JPanel(new FlowLayout());
+        controlPanel.setBackground(BACKGROUND_COLOR);
+
+        resetButton = new JButton("New Game");
+        resetButton.setFont(STATUS_FONT);
+        resetButton.setBackground(new Color(130, 88, 159));
+        resetButton.setForeground(TEXT_COLOR);
+        resetButton.setFocusPainted(false);
+        resetButton.setBorder(BorderFactory.createRaisedBevelBorder());
+        resetButton.setPreferredSize(new Dimension(120, 40));
+        resetButton.addActionListener(event -> resetGame());
+
+        controlPanel.add(resetButton);
+        return controlPanel;
+    }
+
+    private void handleCellClick(int cell) {
+        if (!session.isActive() || pendingAIMove != null) return;
+        clickNanos = System.nanoTime();
+
+        // Check if the cell is already occupied
+        if (!session.board().isEmpty(cell)) {
+            SwingUtilities.invokeLater(recordInputLatency);
+            audio.play(GameAudio.Sound.ERROR);
+            return;
+        }
+
+        // Make the human move; the event it publishes updates the board and status
+        inputPending = true;
+        GameSession.MoveResult result = makeMove(cell);
+
+        // If AI mode and it's AI's turn, make AI move
+        if (result == GameSession.MoveResult.NEXT_TURN && isAIMode && session.currentPlayer() == aiPlayer) {
+            requestAIMove();
+        }
+    }
+
+    private GameSession.MoveResult makeMove(int cell) {
+        GameSession.MoveResult result = session.play(cell);
+        refreshHints();
+        return result;
+    }
+
+    // Runs on the bus's gui thread: passes what the EDT needs on, since the event itself is reused
+    private void onGameEvent(GameEvent event, boolean endOfBatch) {
+        GameEvent.Type type = event.type();
+        long game = event.game();
+        char player = event.player();
+        int cell = event.cell();
+        SwingUtilities.invokeLater(() -> showEvent(type, game, player, cell));
+    }
+
+    private void showEvent(GameEvent.Type type, long game, char player, int cell) {
+        // Events of a game that has since been reset or resized no longer match the board
+        if (game != session.game()) return;
+        switch (type) {
+            case MOVE_PLAYED:
+                boardView.cellChanged(cell);
+                boardView.setActive(session.isActive());
+                audio.play(GameAudio.Sound.MOVE);
+                showTurn();
+                if (inputPending) {
+                    inputPending = false;
+                    SwingUtilities.invokeLater(recordInputLatency);
+                }
+                break;
+            case GAME_WON:
+                handleGameEnd(isAIMode && player == aiPlayer ? "AI Wins!" : player + " Wins!");
+                break;
+            case GAME_DRAWN:
+                handleGameEnd("It's a Draw!");
+                break;
+            case RESET:
+                boardView.reset();
+                showTurn();
+                refreshHints();
+                break;
+        }
+    }
+
+    private void showTurn() {
+        if (!session.isActive()) return;
+        char currentPlayer = session.currentPlayer();
+        if (isAIMode) {
+            statusLabel.setText(currentPlayer == aiPlayer ? "AI is thinking..." : "Your Turn");
+        } else {
+            statusLabel.setText("Player " + currentPlayer + "'s Turn");
+        }
+    }
+
+    // Restarts the hint overlay for the current position. The analysis runs on the AI service and
+    // each cell is painted as it arrives; results for an older position are dropped.
+    private void refreshHints() {
+        if (pendingAnalysis != null) {
+            pendingAnalysis.cancel(true);
+            pendingAnalysis = null;
+        }
+        boardView.clearHints();
+        if (!hintsCheckBox.isSelected() || !boardView.canShowHints() || !session.isActive()
+            || (isAIMode && session.currentPlayer() == aiPlayer)) {
+            return;
+        }
+
+        MnkBoard board = session.board();
+        int generation = gameGeneration;
+        int moveCount = board.moveCount();
+        MoveAnalysis analysis = new MoveAnalysis(board, session.currentPlayer());
+        pendingAnalysis = aiService.requestAnalysis(analysis, HINT_TIME_BUDGET_MILLIS, cell ->
+            SwingUtilities.invokeLater(() -> {
+                if (generation == gameGeneration && moveCount == session.board().moveCount()
+                    && session.isActive() && session.board().isEmpty(cell)) {
+                    showHint(analysis, cell);
+                }
+            }));
+    }
+
+    private void showHint(MoveAnalysis analysis, int cell) {
+        int value = analysis.value(cell);
+        Color color;
+        switch (analysis.outcome(cell)) {
+            case MoveAnalysis.WIN: color = HINT_GOOD_COLOR; break;
+            case MoveAnalysis.LOSS: color = HINT_BAD_COLOR; break;
+            case MoveAnalysis.HEURISTIC:
+                color = value > 0 ? HINT_GOOD_COLOR : value < 0 ? HINT_BAD_COLOR : HINT_DRAW_COLOR;
+                break;
+            default: color = HINT_DRAW_COLOR; break;
+        }
+        boardView.setHint(cell, analysis.label(cell), color);
+    }
+
+    // AI Logic
+    private void requestAIMove() {
+        // The search runs on the AI worker; its answer comes back to the EDT through invokeLater
+        int generation = gameGeneration;
+        // A ponder of this very position answers as soon as the rest of its budget is up
+        pendingAIMove = aiService.requestMove(session.board(), aiPlayer, aiLevel, AI_TIME_BUDGET_MILLIS, 0,
+            AI_MIN_THINK_MILLIS, ponder, result -> SwingUtilities.invokeLater(() -> {
+                // Drop answers for a game that was reset while the AI was thinking
+                if (generation == gameGeneration) {
+                    makeAIMove(result.move);
+                }
+            }));
+        // The request owns the ponder now and stops it itself; a difficulty change mustn't cut it short
+        ponder = null;
+    }
+
+    private void makeAIMove(int move) {
+        pendingAIMove = null;
+        if (move >= 0) makeMove(move);
+        startPondering();
+    }
+
+    // Replaces any ponder with one for the current position if it is the human's turn against the AI
+    private void startPondering() {
+        stopPondering();
+        if (ponderCheckBox.isSelected() && isAIMode && session.isActive() && session.currentPlayer() != aiPlayer) {
+            ponder = aiService.ponder(session.board(), aiPlayer, aiLevel);
+        }
+    }
+
+    private void stopPondering() {
+        if (ponder != null) {
+            ponder.stop();
+            ponder = null;
+        }
+    }
+
+    private void handleGameEnd(String message) {
+        long start = System.nanoTime();
+        statusLabel.setText(message);
+
+        // The session has already counted the result
+        updateScoreDisplay();
+        boardView.setWinningCells(session.winningCells());
+        audio.play(GameAudio.Sound.WIN);
+        startWinAnimation();
+        GameMetrics.get().gameEnd.record(System.nanoTime() - start);
+    }
+
+    private void updateScoreDisplay() {
+        if (isAIMode) {
+            scoreLabel.setText("You: " + session.xWins() + "  |  AI: " + session.oWins() + "  |  Draws: " + session.draws());
+        } else {
+            scoreLabel.setText("X: " + session.xWins() + "  |  O: " + session.oWins() + "  |  Draws: " + session.draws());
+        }
+    }
+
+    private void startWinAnimation() {
+        if (session.winningCells() == null) return;
+
+        // One timer for the whole game, flashing only the winning cells
+        animationTicks = 0;
+        animationTimer.restart();
+    }
+
+    private void resetGame() {
+        // Abandon any search still running for the old game
+        gameGeneration++;
+        if (pendingAIMove != null) {
+            pendingAIMove.cancel(true);
+            pendingAIMove = null;
+        }
+        stopPondering();
+
+        // Stop any running animations
+        animationTimer.stop();
+
+        // Reset game state; the board, status and hints follow the reset event
+        inputPending = false;
+        session.reset();
+        startPondering();
+    }
+
+    public static void main(String[] args) {
+        // Create and show the game
+        SwingUtilities.invokeLater(() -> {
+            new Main().setVisible(true);
+        });
+    }
+}
\ No newline at end of file
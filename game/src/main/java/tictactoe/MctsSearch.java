@@ -0,0 +1,300 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Monte Carlo Tree Search (UCT) for any m,n,k board, parallelized at the root:
+// every worker grows its own tree from the same position with its own board
+// copy and random generator, and the root visit counts are summed at the end.
+// No locks are shared while searching.
+//
+// Trees are stored as parallel primitive arrays rather than node objects, and
+// playouts run on the worker's board copy, picking uniformly from a reusable
+// array of empty cells and undoing their moves afterwards, so the playout loop
+// allocates nothing. Tree nodes only cover cells within two steps of a stone;
+// playouts may go anywhere.
+//
+//   java tictactoe.MctsSearch [rows cols k] [millis]   prints playouts/sec per thread count
+public final class MctsSearch {
+    private static final double EXPLORATION = 1.4;
+    private static final int INITIAL_NODES = 1 << 14;
+    private static final int MAX_NODES = 1 << 22;
+    private static final int CHECK_INTERVAL = 255;
+
+    private final Executor helpers;
+    private final int threads;
+    private final long playoutBudget;
+    private final long timeBudgetMillis;
+    private final long seed;
+
+    // Budgets <= 0 are unlimited, but at least one must be set. helpers runs the threads - 1 helper
+    // workers, one thread each (AIService's search pool), and may be null for one thread.
+    public MctsSearch(Executor helpers, int threads, long playoutBudget, long timeBudgetMillis, long seed) {
+        if (playoutBudget <= 0 && timeBudgetMillis <= 0) {
+            throw new IllegalArgumentException("MCTS needs a playout or time budget");
+        }
+        this.helpers = helpers;
+        this.threads = Math.max(1, threads);
+        this.playoutBudget = playoutBudget;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.seed = seed;
+    }
+
+    // SearchResult.nodes is the total number of playouts; score is the best move's win rate in per mille
+    public SearchResult search(MnkBoard position, char player) {
+        if (position.emptyCount() == 0) return new SearchResult(-1, 0, 0, 0, true);
+
+        // Tactics first: take a win, or block the opponent's
+        int urgent = GameAI.findWinningMove(position, player);
+        if (urgent < 0) urgent = GameAI.findWinningMove(position, player == 'X' ? 'O' : 'X');
+        if (urgent >= 0) return new SearchResult(urgent, 1000, 0, 0, true);
+
+        long deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000 : Long.MAX_VALUE;
+        long perWorker = playoutBudget > 0 ? Math.max(1, playoutBudget / threads) : Long.MAX_VALUE;
+        AtomicBoolean stop = new AtomicBoolean();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        Worker[] workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(position, player, seeds.split());
+        }
+
+        // Helpers run on the helpers executor; this thread runs worker 0 and is the one callers interrupt
+        CompletableFuture<?>[] running = new CompletableFuture<?>[threads - 1];
+        for (int i = 1; i < threads; i++) {
+            Worker worker = workers[i];
+            running[i - 1] = CompletableFuture.runAsync(() -> worker.run(perWorker, deadline, stop), helpers);
+        }
+        workers[0].run(perWorker, deadline, stop);
+        if (Thread.currentThread().isInterrupted()) stop.set(true);
+        CompletableFuture.allOf(running).join();
+
+        long[] visits = new long[position.cellCount()];
+        double[] wins = new double[position.cellCount()];
+        long playouts = 0;
+        int depth = 0;
+        for (Worker worker : workers) {
+            worker.addRootStatistics(visits, wins);
+            playouts += worker.playouts;
+            depth = Math.max(depth, worker.maxDepth);
+        }
+        int best = -1;
+        for (int cell = 0; cell < visits.length; cell++) {
+            if (visits[cell] > 0 && (best < 0 || visits[cell] > visits[best])) best = cell;
+        }
+        int score = best < 0 ? 0 : (int) (1000 * wins[best] / visits[best]);
+        return new SearchResult(best, score, depth, playouts, !stop.get());
+    }
+
+    // One tree. Node 0 is the root; a node's children sit contiguously at firstChild.
+    private static final class Worker {
+        private static final byte OPEN = 0;
+        private static final byte WON = 1;   // the move into this node completed a line
+        private static final byte DRAWN = 2; // the move into this node filled the board
+
+        private final MnkBoard board;
+        private final char rootPlayer;
+        private final SplittableRandom random;
+        private final MoveList candidates;
+        private final int[] path;
+        private final int[] played;
+        private final int[] empties;
+
+        private int[] move = new int[INITIAL_NODES];
+        private int[] firstChild = new int[INITIAL_NODES];
+        private int[] childCount = new int[INITIAL_NODES];
+        private int[] visits = new int[INITIAL_NODES];
+        private float[] wins = new float[INITIAL_NODES];
+        private byte[] terminal = new byte[INITIAL_NODES];
+        private int size = 1;
+        private int playedCount;
+
+        long playouts;
+        int maxDepth;
+
+        Worker(MnkBoard position, char player, SplittableRandom random) {
+            this.board = new MnkBoard(position);
+            this.rootPlayer = player;
+            this.random = random;
+            this.candidates = new MoveList(position.cellCount());
+            this.path = new int[position.cellCount() + 1];
+            this.played = new int[position.cellCount()];
+            this.empties = new int[position.cellCount()];
+            move[0] = -1;
+        }
+
+        void run(long budget, long deadline, AtomicBoolean stop) {
+            while (playouts < budget) {
+                if ((playouts & CHECK_INTERVAL) == 0
+                    && (stop.get() || System.nanoTime() >= deadline || Thread.currentThread().isInterrupted())) {
+                    stop.set(true);
+                    return;
+                }
+                iterate();
+                playouts++;
+            }
+        }
+
+        private void iterate() {
+            int node = 0;
+            int depth = 0;
+            char toMove = rootPlayer;
+            playedCount = 0;
+            path[0] = 0;
+
+            // Selection: follow UCT down through expanded nodes
+            while (childCount[node] > 0 && terminal[node] == OPEN) {
+                node = select(node);
+                play(move[node], toMove);
+                toMove = other(toMove);
+                path[++depth] = node;
+            }
+
+            // Expansion: a node gets children on its second visit (the root straight away)
+            if (terminal[node] == OPEN && (visits[node] > 0 || node == 0) && expand(node, toMove)) {
+                node = select(node);
+                play(move[node], toMove);
+                toMove = other(toMove);
+                path[++depth] = node;
+            }
+            if (depth > maxDepth) maxDepth = depth;
+
+            // Simulation: the winner is the side that moved into a won node
+            char winner;
+            if (terminal[node] == WON) {
+                winner = other(toMove);
+            } else if (terminal[node] == DRAWN) {
+                winner = ' ';
+            } else {
+                winner = playout(toMove);
+            }
+
+            // Backpropagation: each node is scored for the side that moved into it
+            for (int d = depth; d >= 1; d--) {
+                int n = path[d];
+                char mover = (d & 1) == 1 ? rootPlayer : other(rootPlayer);
+                visits[n]++;
+                wins[n] += winner == mover ? 1f : winner == ' ' ? 0.5f : 0f;
+            }
+            visits[0]++;
+
+            while (playedCount > 0) {
+                board.undo(played[--playedCount]);
+            }
+        }
+
+        private void play(int cell, char player) {
+            board.play(cell, player);
+            played[playedCount++] = cell;
+        }
+
+        private int select(int node) {
+            int first = firstChild[node];
+            int end = first + childCount[node];
+            double logParent = Math.log(Math.max(1, visits[node]));
+            int best = first;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int child = first; child < end; child++) {
+                int n = visits[child];
+                if (n == 0) return child;
+                double value = wins[child] / n + EXPLORATION * Math.sqrt(logParent / n);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        // Adds a child per candidate move, in random order; false when the node pool is exhausted
+        private boolean expand(int node, char toMove) {
+            board.generateNearbyMoves(candidates, 2);
+            int count = candidates.size();
+            if (count == 0 || !ensureCapacity(size + count)) return false;
+            for (int i = count - 1; i > 0; i--) {
+                candidates.swap(i, random.nextInt(i + 1));
+            }
+            firstChild[node] = size;
+            childCount[node] = count;
+            boolean lastCell = board.emptyCount() == 1;
+            for (int i = 0; i < count; i++) {
+                int cell = candidates.get(i);
+                int child = size++;
+                move[child] = cell;
+                childCount[child] = 0;
+                visits[child] = 0;
+                wins[child] = 0;
+                terminal[child] = board.completesLine(cell, toMove) ? WON : lastCell ? DRAWN : OPEN;
+            }
+            return true;
+        }
+
+        // Uniformly random moves to the end of the game; returns 'X', 'O' or ' ' for a draw.
+        // A winning move is detected before it is placed, so it never needs undoing.
+        private char playout(char toMove) {
+            int count = 0;
+            for (int cell = 0; cell < board.cellCount(); cell++) {
+                if (board.isEmpty(cell)) empties[count++] = cell;
+            }
+            while (count > 0) {
+                int pick = random.nextInt(count);
+                int cell = empties[pick];
+                empties[pick] = empties[--count];
+                if (board.completesLine(cell, toMove)) return toMove;
+                play(cell, toMove);
+                toMove = other(toMove);
+            }
+            return ' ';
+        }
+
+        private boolean ensureCapacity(int needed) {
+            if (needed <= move.length) return true;
+            if (needed > MAX_NODES) return false;
+            int capacity = Math.min(MAX_NODES, Math.max(needed, move.length * 2));
+            move = Arrays.copyOf(move, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            childCount = Arrays.copyOf(childCount, capacity);
+            visits = Arrays.copyOf(visits, capacity);
+            wins = Arrays.copyOf(wins, capacity);
+            terminal = Arrays.copyOf(terminal, capacity);
+            return true;
+        }
+
+        void addRootStatistics(long[] totalVisits, double[] totalWins) {
+            int first = firstChild[0];
+            for (int child = first; child < first + childCount[0]; child++) {
+                totalVisits[move[child]] += visits[child];
+                totalWins[move[child]] += wins[child];
+            }
+        }
+
+        private static char other(char player) {
+            return player == 'X' ? 'O' : 'X';
+        }
+    }
+
+    public static void main(String[] args) {
+        int rows = args.length >= 3 ? Integer.parseInt(args[0]) : 15;
+        int cols = args.length >= 3 ? Integer.parseInt(args[1]) : 15;
+        int k = args.length >= 3 ? Integer.parseInt(args[2]) : 5;
+        long millis = args.length == 4 ? Long.parseLong(args[3]) : args.length == 1 ? Long.parseLong(args[0]) : 2000;
+        MnkBoard board = new MnkBoard(rows, cols, k);
+        board.place(rows / 2, cols / 2, 'X');
+        int cores = Runtime.getRuntime().availableProcessors();
+        ExecutorService helpers = Executors.newFixedThreadPool(Math.max(1, cores - 1));
+        try {
+            for (int threads = 1; ; threads = Math.min(cores, threads * 2)) {
+                SearchResult result = new MctsSearch(helpers, threads, 0, millis, 1).search(board, 'O');
+                System.out.printf("%dx%d k=%d, %2d thread(s): %,.0f playouts/s, %s%n",
+                    rows, cols, k, threads, result.nodes * 1000.0 / millis, result);
+                if (threads == cores) break;
+            }
+        } finally {
+            helpers.shutdown();
+        }
+    }
+}
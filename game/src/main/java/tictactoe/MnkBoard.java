@@ -0,0 +1,237 @@
+package tictactoe;
+
+import java.util.Arrays;
+
+// Board of rows x cols cells where k in a row wins (3,3,3 is tic-tac-toe,
+// 15,15,5 is gomoku). Cells are stored row-major as 0 empty, 1 X, 2 O.
+// A move can only complete a line that passes through it, so win detection
+// walks the four directions out from the last move and costs O(k).
+public final class MnkBoard {
+    // Largest side the GUI, the engine and the server accept; bigger boards only cost memory
+    public static final int MAX_SIZE = 50;
+
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private final int rows;
+    private final int cols;
+    private final int k;
+    private final byte[] cells;
+    private int moveCount;
+    private int lastMove = -1;
+
+    public MnkBoard(int rows, int cols, int k) {
+        if (rows < 1 || cols < 1 || k < 1 || (k > rows && k > cols)) {
+            throw new IllegalArgumentException("No line of " + k + " fits on a " + rows + "x" + cols + " board");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.k = k;
+        this.cells = new byte[rows * cols];
+    }
+
+    // True for a board the front ends accept: sides of 1 to MAX_SIZE, and a line of k fits
+    public static boolean isSupported(int rows, int cols, int k) {
+        return rows >= 1 && cols >= 1 && rows <= MAX_SIZE && cols <= MAX_SIZE && k >= 1 && k <= Math.max(rows, cols);
+    }
+
+    public MnkBoard(MnkBoard other) {
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.k = other.k;
+        this.cells = other.cells.clone();
+        this.moveCount = other.moveCount;
+        this.lastMove = other.lastMove;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int k() {
+        return k;
+    }
+
+    public int cellCount() {
+        return cells.length;
+    }
+
+    public int index(int row, int col) {
+        return row * cols + col;
+    }
+
+    public int row(int cell) {
+        return cell / cols;
+    }
+
+    public int col(int cell) {
+        return cell % cols;
+    }
+
+    public boolean isClassic() {
+        return rows == Board.SIZE && cols == Board.SIZE && k == Board.SIZE;
+    }
+
+    public char get(int cell) {
+        byte value = cells[cell];
+        return value == 1 ? 'X' : value == 2 ? 'O' : ' ';
+    }
+
+    public char get(int row, int col) {
+        return get(index(row, col));
+    }
+
+    public boolean isEmpty(int cell) {
+        return cells[cell] == 0;
+    }
+
+    public boolean isEmpty(int row, int col) {
+        return isEmpty(index(row, col));
+    }
+
+    public boolean inBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    public void place(int row, int col, char player) {
+        play(index(row, col), player);
+    }
+
+    public void play(int cell, char player) {
+        cells[cell] = player == 'X' ? (byte) 1 : (byte) 2;
+        moveCount++;
+        lastMove = cell;
+    }
+
+    // Takes back the move at cell; lastMove is not restored
+    public void undo(int cell) {
+        cells[cell] = 0;
+        moveCount--;
+        lastMove = -1;
+    }
+
+    public void clear() {
+        Arrays.fill(cells, (byte) 0);
+        moveCount = 0;
+        lastMove = -1;
+    }
+
+    public int moveCount() {
+        return moveCount;
+    }
+
+    public int lastMove() {
+        return lastMove;
+    }
+
+    public boolean isFull() {
+        return moveCount == cells.length;
+    }
+
+    public int emptyCount() {
+        return cells.length - moveCount;
+    }
+
+    // The n-th empty cell in row-major order (0-based), or -1 if there are not that many
+    public int nthEmpty(int n) {
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == 0 && n-- == 0) return cell;
+        }
+        return -1;
+    }
+
+    // Replaces the contents of moves with every empty cell
+    public void generateMoves(MoveList moves) {
+        moves.clear();
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == 0) moves.add(cell);
+        }
+    }
+
+    // Replaces the contents of moves with the empty cells within distance steps of a stone
+    // (the center on an empty board). Searches on big boards only look at these.
+    public void generateNearbyMoves(MoveList moves, int distance) {
+        moves.clear();
+        if (moveCount == 0) {
+            moves.add(index(rows / 2, cols / 2));
+            return;
+        }
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == 0 && hasStoneNear(cell, distance)) moves.add(cell);
+        }
+    }
+
+    private boolean hasStoneNear(int cell, int distance) {
+        int row = row(cell);
+        int col = col(cell);
+        for (int r = Math.max(0, row - distance); r <= Math.min(rows - 1, row + distance); r++) {
+            for (int c = Math.max(0, col - distance); c <= Math.min(cols - 1, col + distance); c++) {
+                if (cells[r * cols + c] != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    // Cells of a completed line through cell (k or more of them), or null if there is none
+    public int[] winningCells(int cell) {
+        if (cell < 0 || cells[cell] == 0) return null;
+        byte stone = cells[cell];
+        int row = row(cell);
+        int col = col(cell);
+        for (int[] d : DIRECTIONS) {
+            int back = run(row, col, -d[0], -d[1], stone);
+            int forward = run(row, col, d[0], d[1], stone);
+            int length = back + 1 + forward;
+            if (length >= k) {
+                int[] line = new int[length];
+                for (int i = 0; i < length; i++) {
+                    int step = i - back;
+                    line[i] = index(row + step * d[0], col + step * d[1]);
+                }
+                return line;
+            }
+        }
+        return null;
+    }
+
+    // True if player dropping a stone on the empty cell would complete a line; the board is not modified
+    public boolean completesLine(int cell, char player) {
+        byte stone = player == 'X' ? (byte) 1 : (byte) 2;
+        int row = row(cell);
+        int col = col(cell);
+        for (int[] d : DIRECTIONS) {
+            if (run(row, col, -d[0], -d[1], stone) + 1 + run(row, col, d[0], d[1], stone) >= k) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Bitboard view of a 3x3 board for the solver and the perfect-play table
+    public Board toBoard() {
+        if (!isClassic()) throw new IllegalStateException("Not a 3x3 board");
+        int x = 0;
+        int o = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == 1) x |= 1 << cell;
+            else if (cells[cell] == 2) o |= 1 << cell;
+        }
+        return Board.of(x, o);
+    }
+
+    // Number of consecutive stones from (row, col) exclusive in direction (dr, dc), at most k - 1
+    private int run(int row, int col, int dr, int dc, byte stone) {
+        int count = 0;
+        int r = row + dr;
+        int c = col + dc;
+        while (count < k - 1 && r >= 0 && r < rows && c >= 0 && c < cols && cells[r * cols + c] == stone) {
+            count++;
+            r += dr;
+            c += dc;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,169 @@
+package tictactoe;
+
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+// Scores every legal move for the side to move, so the GUI can show why the
+// AI prefers one cell over another. On 3x3 each move is solved exactly with
+// Solver (win, draw or loss and how many plies until the game ends); on
+// bigger boards each move gets a short IterativeSearch of the reply, which
+// still finds forced wins and losses within its depth and otherwise reports
+// the heuristic score.
+//
+// Candidate moves are evaluated in parallel on the common fork/join pool.
+// Each cell is reported through the onCell callback as soon as it is done, and
+// its outcome and value may be read once that callback has run.
+public final class MoveAnalysis {
+    public static final byte PENDING = 0;
+    public static final byte OCCUPIED = 1;
+    public static final byte WIN = 2;
+    public static final byte DRAW = 3;
+    public static final byte LOSS = 4;
+    public static final byte HEURISTIC = 5;
+
+    // Each reply search gets at least this long, however many candidates there are
+    private static final long MIN_MOVE_MILLIS = 10;
+
+    private static final ThreadLocal<Solver> SOLVERS = ThreadLocal.withInitial(Solver::new);
+
+    private final MnkBoard position;
+    private final char player;
+    private final byte[] outcomes;
+    private final int[] values;
+
+    public MoveAnalysis(MnkBoard position, char player) {
+        this.position = new MnkBoard(position);
+        this.player = player;
+        this.outcomes = new byte[position.cellCount()];
+        this.values = new int[position.cellCount()];
+        for (int cell = 0; cell < outcomes.length; cell++) {
+            if (!position.isEmpty(cell)) outcomes[cell] = OCCUPIED;
+        }
+    }
+
+    public char player() {
+        return player;
+    }
+
+    public byte outcome(int cell) {
+        return outcomes[cell];
+    }
+
+    // Plies until the game ends for WIN and LOSS (counting this move), the search score for HEURISTIC
+    public int value(int cell) {
+        return values[cell];
+    }
+
+    // Short text for the overlay: W3 wins in 3 plies, L4 loses in 4, D draws, +1.2k is a heuristic score
+    public String label(int cell) {
+        switch (outcomes[cell]) {
+            case WIN: return "W" + values[cell];
+            case LOSS: return "L" + values[cell];
+            case DRAW: return "D";
+            case HEURISTIC: return compact(values[cell]);
+            default: return "";
+        }
+    }
+
+    private static String compact(int score) {
+        String sign = score > 0 ? "+" : score < 0 ? "-" : "";
+        int magnitude = Math.abs(score);
+        if (magnitude >= 1_000_000) return sign + magnitude / 1_000_000 + "M";
+        if (magnitude >= 10_000) return sign + magnitude / 1000 + "k";
+        if (magnitude >= 1000) return String.format("%s%.1fk", sign, magnitude / 1000.0);
+        return sign + magnitude;
+    }
+
+    // Evaluates every empty cell within timeBudgetMillis overall (<= 0 is unlimited on 3x3 and
+    // MIN_MOVE_MILLIS per move elsewhere). Interrupting the calling thread abandons the moves not yet started.
+    public void analyze(long timeBudgetMillis, IntConsumer onCell) {
+        int[] cells = new int[position.emptyCount()];
+        for (int cell = 0, n = 0; cell < outcomes.length; cell++) {
+            if (outcomes[cell] != OCCUPIED) cells[n++] = cell;
+        }
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        long perMove = Math.max(MIN_MOVE_MILLIS, timeBudgetMillis * parallelism / Math.max(1, cells.length));
+        Thread caller = Thread.currentThread();
+        IntStream.range(0, cells.length).parallel().forEach(i -> {
+            if (caller.isInterrupted()) return;
+            int cell = cells[i];
+            if (position.isClassic()) {
+                solve(cell);
+            } else {
+                search(cell, perMove);
+            }
+            onCell.accept(cell);
+        });
+    }
+
+    private void solve(int cell) {
+        Board board = position.toBoard();
+        board.place(Board.row(cell), Board.col(cell), player);
+        int ply = position.moveCount() + 1;
+        if (board.hasWon(player)) {
+            record(cell, WIN, 1);
+            return;
+        }
+        // Solver scores are WIN_SCORE minus the absolute ply the game ends on, from the opponent's side
+        Solver solver = SOLVERS.get();
+        int score = -solver.evaluate(board, other(player));
+        GameMetrics.get().recordCacheLookups(solver.tableProbes(), solver.tableHits());
+        if (score == 0) {
+            record(cell, DRAW, 0);
+        } else {
+            record(cell, score > 0 ? WIN : LOSS, Solver.WIN_SCORE - Math.abs(score) - ply + 1);
+        }
+    }
+
+    private void search(int cell, long budgetMillis) {
+        if (position.completesLine(cell, player)) {
+            record(cell, WIN, 1);
+            return;
+        }
+        MnkBoard board = new MnkBoard(position);
+        board.play(cell, player);
+        if (board.isFull()) {
+            record(cell, DRAW, 0);
+            return;
+        }
+        // Reply scores are WIN_SCORE minus the plies after this move, from the opponent's side
+        SearchResult reply = new IterativeSearch(board, budgetMillis, 0).search(other(player), -1);
+        GameMetrics.get().recordNodes(reply.nodes);
+        int score = -reply.score;
+        if (Math.abs(score) >= IterativeSearch.WIN_SCORE - IterativeSearch.MAX_DEPTH) {
+            record(cell, score > 0 ? WIN : LOSS, IterativeSearch.WIN_SCORE - Math.abs(score) + 1);
+        } else {
+            record(cell, HEURISTIC, score);
+        }
+    }
+
+    private void record(int cell, byte outcome, int value) {
+        values[cell] = value;
+        outcomes[cell] = outcome;
+    }
+
+    private static char other(char player) {
+        return player == 'X' ? 'O' : 'X';
+    }
+
+    public static void main(String[] args) {
+        int rows = args.length >= 3 ? Integer.parseInt(args[0]) : 3;
+        int cols = args.length >= 3 ? Integer.parseInt(args[1]) : 3;
+        int k = args.length >= 3 ? Integer.parseInt(args[2]) : 3;
+        MnkBoard board = new MnkBoard(rows, cols, k);
+        board.place(rows / 2, cols / 2, 'X');
+        if (cols > 1) board.place(rows / 2, cols / 2 - 1, 'O');
+        MoveAnalysis analysis = new MoveAnalysis(board, 'X');
+        long start = System.nanoTime();
+        analysis.analyze(1000, cell -> { });
+        System.out.printf("%dx%d k=%d, X to move, analysed in %d ms%n", rows, cols, k, (System.nanoTime() - start) / 1_000_000);
+        for (int r = 0; r < rows; r++) {
+            StringBuilder line = new StringBuilder();
+            for (int c = 0; c < cols; c++) {
+                int cell = board.index(r, c);
+                line.append(String.format("%6s", board.isEmpty(cell) ? analysis.label(cell) : String.valueOf(board.get(cell))));
+            }
+            System.out.println(line);
+        }
+    }
+}
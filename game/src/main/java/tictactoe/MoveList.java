@@ -0,0 +1,38 @@
+package tictactoe;
+
+// Reusable list of moves as cell indices. Sized once for the board, so
+// refilling it on every turn never allocates.
+public final class MoveList {
+    private final int[] cells;
+    private int size;
+
+    public MoveList(int capacity) {
+        this.cells = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int index) {
+        return cells[index];
+    }
+
+    public void add(int cell) {
+        cells[size++] = cell;
+    }
+
+    public void swap(int i, int j) {
+        int tmp = cells[i];
+        cells[i] = cells[j];
+        cells[j] = tmp;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,95 @@
+package tictactoe;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Lazy SMP: several IterativeSearches of the same root at once, sharing one
+// TranspositionTable and nothing else. No work is divided up; the helpers
+// search the whole tree in their own shuffled order, and what they store in
+// the table lets every thread cut off subtrees another has already done, so
+// the group reaches a given depth sooner than one thread would.
+//
+// Like MctsSearch, helpers run on an executor the caller hands in, which
+// should have a thread for each of them (AIService keeps a pool of
+// SEARCH_THREADS - 1 for the purpose, apart from the common fork/join pool,
+// so other parallel work can't hold the helpers back), and the calling
+// thread runs worker 0, so interrupting the caller stops the search. The
+// first worker to finish (its depth limit, a forced result, or the budget)
+// stops the rest, and the answer comes from whichever got deepest, worker 0
+// on a tie. The node budget is split evenly between the workers.
+public final class ParallelSearch {
+    private final Executor helpers;
+    private final TranspositionTable table;
+    private final int threads;
+    private final long timeBudgetMillis;
+    private final long nodeBudget;
+    private int depthLimit = IterativeSearch.MAX_DEPTH;
+    private long tableProbes;
+    private long tableHits;
+
+    // Budgets <= 0 are unlimited; table may already hold results from earlier searches.
+    // helpers runs the threads - 1 helper workers and may be null for one thread.
+    public ParallelSearch(Executor helpers, TranspositionTable table, int threads, long timeBudgetMillis,
+                          long nodeBudget) {
+        this.helpers = helpers;
+        this.table = table;
+        this.threads = Math.max(1, threads);
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.nodeBudget = nodeBudget;
+    }
+
+    // Stops once some worker has completed this depth
+    void limitDepth(int depth) {
+        depthLimit = depth;
+    }
+
+    // Transposition table lookups by the most recent search, over all workers, and how many found their position
+    public long tableProbes() {
+        return tableProbes;
+    }
+
+    public long tableHits() {
+        return tableHits;
+    }
+
+    // SearchResult.nodes is the total over all workers
+    public SearchResult search(MnkBoard position, char player, int fallbackMove) {
+        return search(position, player, fallbackMove, new AtomicBoolean());
+    }
+
+    // Setting stop from another thread ends the search like the budget running out
+    SearchResult search(MnkBoard position, char player, int fallbackMove, AtomicBoolean stop) {
+        long perWorker = nodeBudget > 0 ? Math.max(1, nodeBudget / threads) : 0;
+        IterativeSearch[] workers = new IterativeSearch[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new IterativeSearch(position, timeBudgetMillis, perWorker, table, i, stop);
+            workers[i].limitDepth(depthLimit);
+        }
+
+        SearchResult[] results = new SearchResult[threads];
+        CompletableFuture<?>[] running = new CompletableFuture<?>[threads - 1];
+        for (int i = 1; i < threads; i++) {
+            int worker = i;
+            running[i - 1] = CompletableFuture.runAsync(() -> {
+                results[worker] = workers[worker].search(player, fallbackMove);
+                stop.set(true);
+            }, helpers);
+        }
+        results[0] = workers[0].search(player, fallbackMove);
+        stop.set(true);
+        CompletableFuture.allOf(running).join();
+
+        SearchResult best = results[0];
+        long nodes = 0;
+        tableProbes = 0;
+        tableHits = 0;
+        for (int i = 0; i < threads; i++) {
+            nodes += results[i].nodes;
+            tableProbes += workers[i].tableProbes();
+            tableHits += workers[i].tableHits();
+            if (results[i].depth > best.depth) best = results[i];
+        }
+        return new SearchResult(best.move, best.score, best.depth, nodes, best.complete);
+    }
+}
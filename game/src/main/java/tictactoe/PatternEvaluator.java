@@ -0,0 +1,192 @@
+package tictactoe;
+
+import java.util.Arrays;
+
+// Static evaluation for depth-limited search, kept up to date move by move.
+//
+// Every row, column and diagonal is cut into overlapping windows of k + 1
+// cells (a line exactly k long is a single window of k). The window's cells,
+// read as a base-3 number (0 empty, 1 X, 2 O), index a table of scores worked
+// out up front, so scoring a window is one array load. The board's score is
+// the sum over all windows, from X's point of view. A move only changes the
+// windows through its cell, at most 4 (k + 1) of them, so play and undo move
+// the sum in O(k) and evaluate() is O(1); rescan() works the same number out
+// from scratch in O(board).
+//
+// For each side, a window scores by the most stones that side has in a k-cell
+// stretch of it the other side isn't in (shown for k = 4):
+//
+//   open     _XXX_    no enemy stone, both end cells empty      3 * 4^n
+//   blocked  OXXX_    room for k in a row on one side only          4^n
+//   dead     OXX_O    no room for k in a row                          0
+//
+// and the window is worth X's score minus O's. Counted over overlapping
+// windows this ranks open fours over blocked fours and open threes, and those
+// over the rest, which is all a search frontier needs.
+public final class PatternEvaluator {
+    // Tables have 3^(k+1) entries, and 4^(k+1) must stay far below IterativeSearch.WIN_SCORE
+    public static final int MAX_K = 8;
+
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private final int k;
+    // scores[0, 3^(k+1)) rates windows of k + 1 cells, the 3^k after them windows of k
+    private final int[] scores;
+    // Per window: its cells, and its base-3 index plus the offset of its table in scores
+    private final int[] windowFirst;
+    private final int[] windowStep;
+    private final int[] windowLength;
+    private final int[] windowPattern;
+    // The windows through each cell, touchesPerCell slots per cell, with the cell's place value in each
+    private final int touchesPerCell;
+    private final int[] touchCount;
+    private final int[] touchWindow;
+    private final int[] touchPower;
+    private int score;
+
+    public static boolean supports(int k) {
+        return k <= MAX_K;
+    }
+
+    // Starts from the stones already on board
+    public PatternEvaluator(MnkBoard board) {
+        if (!supports(board.k())) throw new IllegalArgumentException("k above " + MAX_K + ": " + board.k());
+        this.k = board.k();
+        int longTable = pow3(k + 1);
+        this.scores = new int[longTable + pow3(k)];
+        fillTable(0, k + 1);
+        fillTable(longTable, k);
+
+        int cellCount = board.cellCount();
+        int maxWindows = 4 * cellCount;
+        int[] first = new int[maxWindows];
+        int[] step = new int[maxWindows];
+        int[] length = new int[maxWindows];
+        int[] pattern = new int[maxWindows];
+        int windows = 0;
+        for (int[] d : DIRECTIONS) {
+            for (int cell = 0; cell < cellCount; cell++) {
+                int row = board.row(cell);
+                int col = board.col(cell);
+                // Walk each maximal line once, from its first cell
+                if (board.inBounds(row - d[0], col - d[1])) continue;
+                int lineLength = 0;
+                while (board.inBounds(row + lineLength * d[0], col + lineLength * d[1])) lineLength++;
+                if (lineLength < k) continue;
+                int width = lineLength == k ? k : k + 1;
+                for (int start = 0; start + width <= lineLength; start++) {
+                    first[windows] = board.index(row + start * d[0], col + start * d[1]);
+                    step[windows] = d[0] * board.cols() + d[1];
+                    length[windows] = width;
+                    pattern[windows] = width == k ? longTable : 0;
+                    windows++;
+                }
+            }
+        }
+        this.windowFirst = Arrays.copyOf(first, windows);
+        this.windowStep = Arrays.copyOf(step, windows);
+        this.windowLength = Arrays.copyOf(length, windows);
+        this.windowPattern = Arrays.copyOf(pattern, windows);
+
+        this.touchesPerCell = 4 * (k + 1);
+        this.touchCount = new int[cellCount];
+        this.touchWindow = new int[cellCount * touchesPerCell];
+        this.touchPower = new int[cellCount * touchesPerCell];
+        for (int w = 0; w < windows; w++) {
+            int power = 1;
+            for (int i = 0; i < windowLength[w]; i++) {
+                int cell = windowFirst[w] + i * windowStep[w];
+                int slot = cell * touchesPerCell + touchCount[cell]++;
+                touchWindow[slot] = w;
+                touchPower[slot] = power;
+                power *= 3;
+            }
+        }
+
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (!board.isEmpty(cell)) play(cell, board.get(cell));
+        }
+    }
+
+    // Call alongside MnkBoard.play
+    public void play(int cell, char player) {
+        int stone = player == 'X' ? 1 : 2;
+        int end = cell * touchesPerCell + touchCount[cell];
+        for (int t = cell * touchesPerCell; t < end; t++) {
+            int w = touchWindow[t];
+            int before = scores[windowPattern[w]];
+            windowPattern[w] += stone * touchPower[t];
+            score += scores[windowPattern[w]] - before;
+        }
+    }
+
+    // Call alongside MnkBoard.undo, with the player whose stone is taken back
+    public void undo(int cell, char player) {
+        int stone = player == 'X' ? 1 : 2;
+        int end = cell * touchesPerCell + touchCount[cell];
+        for (int t = cell * touchesPerCell; t < end; t++) {
+            int w = touchWindow[t];
+            int before = scores[windowPattern[w]];
+            windowPattern[w] -= stone * touchPower[t];
+            score += scores[windowPattern[w]] - before;
+        }
+    }
+
+    // Score of the position from player's point of view
+    public int evaluate(char player) {
+        return player == 'X' ? score : -score;
+    }
+
+    // evaluate() worked out from scratch for board, which must have the geometry this was built for
+    public int rescan(MnkBoard board, char player) {
+        int longTable = pow3(k + 1);
+        int total = 0;
+        for (int w = 0; w < windowFirst.length; w++) {
+            int index = windowLength[w] == k ? longTable : 0;
+            int power = 1;
+            for (int i = 0; i < windowLength[w]; i++) {
+                char c = board.get(windowFirst[w] + i * windowStep[w]);
+                if (c != ' ') index += (c == 'X' ? 1 : 2) * power;
+                power *= 3;
+            }
+            total += scores[index];
+        }
+        return player == 'X' ? total : -total;
+    }
+
+    // Scores every window of width cells into scores[offset, offset + 3^width)
+    private void fillTable(int offset, int width) {
+        int[] cells = new int[width];
+        for (int index = 0; index < pow3(width); index++) {
+            for (int i = 0, rest = index; i < width; i++, rest /= 3) {
+                cells[i] = rest % 3;
+            }
+            scores[offset + index] = sideScore(cells, 1) - sideScore(cells, 2);
+        }
+    }
+
+    private int sideScore(int[] cells, int stone) {
+        int best = 0;
+        boolean clear = true;
+        for (int start = 0; start + k <= cells.length; start++) {
+            int mine = 0;
+            boolean live = true;
+            for (int i = start; i < start + k; i++) {
+                if (cells[i] == stone) mine++;
+                else if (cells[i] != 0) live = false;
+            }
+            if (live) best = Math.max(best, mine);
+            else clear = false;
+        }
+        if (best == 0) return 0;
+        int weight = 1 << (2 * best);
+        boolean open = clear && cells.length > k && cells[0] == 0 && cells[cells.length - 1] == 0;
+        return open ? 3 * weight : weight;
+    }
+
+    private static int pow3(int n) {
+        int power = 1;
+        for (int i = 0; i < n; i++) power *= 3;
+        return power;
+    }
+}
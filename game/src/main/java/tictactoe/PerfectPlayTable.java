@@ -0,0 +1,271 @@
+package tictactoe;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Best move and game value for every reachable 3x3 position, indexed by the
+// base-3 position code (cell value 0 empty, 1 X, 2 O, cell 0 least significant).
+//
+// The resource only stores the 765 positions that are canonical under the 8
+// board symmetries, 3 bytes each; loading expands them to all 5,478 reachable
+// positions so a lookup is a single array read. If the resource is missing the
+// table is generated on first use with the Solver.
+//
+//   java tictactoe.PerfectPlayTable generate [file]   writes the resource (default perfect3x3.bin)
+//   java tictactoe.PerfectPlayTable verify            checks every entry against a live search
+public final class PerfectPlayTable {
+    public static final String RESOURCE = "perfect3x3.bin";
+    public static final int POSITIONS = 19683; // 3^9
+
+    public static final int DRAW = 0;
+    public static final int WIN = 1;
+    public static final int LOSS = 2;
+
+    private static final int MAGIC = 0x54545433; // "TTT3"
+    private static final int VERSION = 1;
+    private static final int NO_MOVE = 0x0F;
+    private static final byte UNREACHABLE = (byte) 0xFF;
+
+    // BASE3[mask] is the sum of 3^cell over the set bits of mask
+    private static final int[] BASE3 = new int[Board.FULL_MASK + 1];
+
+    static {
+        for (int mask = 1; mask <= Board.FULL_MASK; mask++) {
+            int low = Integer.numberOfTrailingZeros(mask);
+            BASE3[mask] = BASE3[mask & (mask - 1)] + pow3(low);
+        }
+    }
+
+    private static class Holder {
+        static final PerfectPlayTable INSTANCE = loadOrGenerate();
+    }
+
+    // Entry layout: bits 0-3 best cell (15 when the game is over), bits 4-5 value for the side to move
+    private final byte[] entries;
+
+    private PerfectPlayTable(byte[] entries) {
+        this.entries = entries;
+    }
+
+    public static PerfectPlayTable get() {
+        return Holder.INSTANCE;
+    }
+
+    public static int code(Board board) {
+        return BASE3[board.mask('X')] + 2 * BASE3[board.mask('O')];
+    }
+
+    // Base-3 code read straight from a 3x3 MnkBoard, without building a bitboard
+    public static int code(MnkBoard board) {
+        int code = 0;
+        for (int cell = Board.CELLS - 1; cell >= 0; cell--) {
+            char c = board.get(cell);
+            code = code * 3 + (c == 'X' ? 1 : c == 'O' ? 2 : 0);
+        }
+        return code;
+    }
+
+    // Best cell for the side to move, or -1 when the game is over or the position is unreachable
+    public int bestMove(Board board) {
+        return bestMove(code(board));
+    }
+
+    public int bestMove(int code) {
+        int move = entries[code] & NO_MOVE;
+        return move == NO_MOVE ? -1 : move;
+    }
+
+    // DRAW, WIN or LOSS for the side to move, or -1 for an unreachable position
+    public int value(Board board) {
+        return value(code(board));
+    }
+
+    public int value(int code) {
+        byte entry = entries[code];
+        return entry == UNREACHABLE ? -1 : (entry >> 4) & 0x3;
+    }
+
+    public int reachablePositions() {
+        int count = 0;
+        for (byte entry : entries) {
+            if (entry != UNREACHABLE) count++;
+        }
+        return count;
+    }
+
+    private static PerfectPlayTable loadOrGenerate() {
+        try (InputStream in = PerfectPlayTable.class.getResourceAsStream("/" + RESOURCE)) {
+            if (in != null) return read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + RESOURCE, e);
+        }
+        return expand(generateCanonical());
+    }
+
+    private static PerfectPlayTable read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC || data.readUnsignedByte() != VERSION) {
+            throw new IOException(RESOURCE + " has an unknown format");
+        }
+        int count = data.readUnsignedShort();
+        Map<Integer, Byte> canonical = new TreeMap<>();
+        for (int i = 0; i < count; i++) {
+            canonical.put(data.readUnsignedShort(), data.readByte());
+        }
+        return expand(canonical);
+    }
+
+    static void write(Map<Integer, Byte> canonical, String path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeShort(canonical.size());
+            for (Map.Entry<Integer, Byte> e : canonical.entrySet()) {
+                out.writeShort(e.getKey());
+                out.writeByte(e.getValue());
+            }
+        }
+    }
+
+    // Walks every reachable position and solves the canonical representative of each symmetry class
+    static Map<Integer, Byte> generateCanonical() {
+        Map<Integer, Byte> canonical = new TreeMap<>();
+        collect(0, 0, new Solver(), canonical);
+        return canonical;
+    }
+
+    private static void collect(int x, int o, Solver solver, Map<Integer, Byte> canonical) {
+        int key = canonicalCode(x, o);
+        if (canonical.containsKey(key)) return;
+
+        int[] masks = decode(key);
+        Board board = Board.of(masks[0], masks[1]);
+        char toMove = Integer.bitCount(masks[0]) == Integer.bitCount(masks[1]) ? 'X' : 'O';
+        boolean over = board.hasWon('X') || board.hasWon('O') || board.isFull();
+        int score = solver.evaluate(board, toMove);
+        int move = over ? NO_MOVE : solver.bestMove(board, toMove);
+        int value = score > 0 ? WIN : score < 0 ? LOSS : DRAW;
+        canonical.put(key, (byte) (value << 4 | move));
+        if (over) return;
+
+        int empty = Board.FULL_MASK & ~(x | o);
+        while (empty != 0) {
+            int bit = empty & -empty;
+            empty &= empty - 1;
+            if (toMove == 'X') {
+                collect(x | bit, o, solver, canonical);
+            } else {
+                collect(x, o | bit, solver, canonical);
+            }
+        }
+    }
+
+    private static PerfectPlayTable expand(Map<Integer, Byte> canonical) {
+        byte[] entries = new byte[POSITIONS];
+        Arrays.fill(entries, UNREACHABLE);
+        for (Map.Entry<Integer, Byte> e : canonical.entrySet()) {
+            int[] masks = decode(e.getKey());
+            int entry = e.getValue();
+            int move = entry & NO_MOVE;
+            for (int[] symmetry : Solver.SYMMETRIES) {
+                int x = transform(masks[0], symmetry);
+                int o = transform(masks[1], symmetry);
+                int mapped = move == NO_MOVE ? NO_MOVE : symmetry[move];
+                entries[BASE3[x] + 2 * BASE3[o]] = (byte) ((entry & ~NO_MOVE) | mapped);
+            }
+        }
+        return new PerfectPlayTable(entries);
+    }
+
+    private static int canonicalCode(int x, int o) {
+        int min = Integer.MAX_VALUE;
+        for (int[] symmetry : Solver.SYMMETRIES) {
+            int code = BASE3[transform(x, symmetry)] + 2 * BASE3[transform(o, symmetry)];
+            if (code < min) min = code;
+        }
+        return min;
+    }
+
+    private static int transform(int mask, int[] symmetry) {
+        int result = 0;
+        while (mask != 0) {
+            int cell = Integer.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            result |= 1 << symmetry[cell];
+        }
+        return result;
+    }
+
+    private static int[] decode(int code) {
+        int x = 0;
+        int o = 0;
+        for (int cell = 0; cell < Board.CELLS; cell++) {
+            int digit = code % 3;
+            code /= 3;
+            if (digit == 1) x |= 1 << cell;
+            else if (digit == 2) o |= 1 << cell;
+        }
+        return new int[]{x, o};
+    }
+
+    private static int pow3(int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) result *= 3;
+        return result;
+    }
+
+    // Every reachable entry must agree with the solver's value, and its move must keep that value
+    private int verify() {
+        Solver solver = new Solver();
+        int mismatches = 0;
+        for (int code = 0; code < POSITIONS; code++) {
+            if (entries[code] == UNREACHABLE) continue;
+            int[] masks = decode(code);
+            Board board = Board.of(masks[0], masks[1]);
+            char toMove = Integer.bitCount(masks[0]) == Integer.bitCount(masks[1]) ? 'X' : 'O';
+            char opponent = toMove == 'X' ? 'O' : 'X';
+            int expected = solver.evaluate(board, toMove);
+            int expectedValue = expected > 0 ? WIN : expected < 0 ? LOSS : DRAW;
+            boolean ok = value(board) == expectedValue;
+
+            int move = bestMove(board);
+            if (ok && move >= 0) {
+                Board next = board.copy();
+                next.place(Board.row(move), Board.col(move), toMove);
+                ok = next.hasWon(toMove) ? expected == Solver.WIN_SCORE - Integer.bitCount(masks[0] | masks[1]) - 1
+                    : -solver.evaluate(next, opponent) == expected;
+            }
+            if (!ok) {
+                mismatches++;
+                System.out.println("Mismatch at position code " + code);
+            }
+        }
+        return mismatches;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String command = args.length > 0 ? args[0] : "verify";
+        if (command.equals("generate")) {
+            String path = args.length > 1 ? args[1] : RESOURCE;
+            Map<Integer, Byte> canonical = generateCanonical();
+            write(canonical, path);
+            System.out.println("Wrote " + canonical.size() + " canonical positions to " + path);
+        } else if (command.equals("verify")) {
+            PerfectPlayTable table = get();
+            int mismatches = table.verify();
+            System.out.println("Checked " + table.reachablePositions() + " positions, " + mismatches + " mismatches");
+            if (mismatches > 0) System.exit(1);
+        } else {
+            System.out.println("Usage: java tictactoe.PerfectPlayTable [generate [file] | verify]");
+        }
+    }
+}
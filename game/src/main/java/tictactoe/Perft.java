@@ -0,0 +1,222 @@
+package tictactoe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Walks the whole game tree below a position and counts what it finds, ply by
+// ply: positions reached, and games ending there in an X win, an O win or a
+// draw. The totals are fixed by the rules, so they double as a regression
+// check on them (from the empty 3x3 board: 255,168 games, 131,184 X wins,
+// 77,904 O wins, 46,080 draws) and, over a run of millions of play/undo
+// cycles, as a benchmark of the board.
+//
+//   java tictactoe.Perft [--board 3,3,3] [--moves 4,0,...] [--depth N] [--unique] [--check] [--repeat N]
+//
+// --moves plays those cells from the empty board first, X first. --depth stops
+// that many plies below the start; games still going there are not counted as
+// finished. The top SPLIT_PLIES plies fork a task per move on the common
+// fork/join pool; below that each task walks its subtree on its own board.
+//
+// --unique counts distinct positions instead (5,478 on 3x3, the empty board
+// included): a position is expanded only the first time any task reaches it,
+// so each per-ply count is of positions, not of paths to them. Positions are
+// keyed exactly while the board has at most 40 cells and by a 64-bit Zobrist
+// hash beyond that.
+//
+// --check plays every move with both win tests, MnkBoard.completesLine before
+// the move and Tic.haveWon after it, and counts any disagreement.
+public final class Perft {
+    static final int SPLIT_PLIES = 2;
+    private static final int MAX_EXACT_CELLS = 40;
+
+    // Columns of the per-ply counts
+    static final int POSITIONS = 0;
+    static final int X_WINS = 1;
+    static final int O_WINS = 2;
+    static final int DRAWS = 3;
+    static final int COLUMNS = 4;
+
+    private final int maxDepth;
+    private final boolean check;
+    private final Set<Long> seen;
+    private final long[] zobrist;
+
+    Perft(MnkBoard start, int maxDepth, boolean unique, boolean check) {
+        this.maxDepth = Math.min(maxDepth, start.emptyCount());
+        this.check = check;
+        this.seen = unique ? ConcurrentHashMap.newKeySet() : null;
+        if (unique && start.cellCount() > MAX_EXACT_CELLS) {
+            zobrist = new long[start.cellCount() * 2];
+            SplittableRandom random = new SplittableRandom(start.cellCount());
+            for (int i = 0; i < zobrist.length; i++) zobrist[i] = random.nextLong();
+        } else {
+            zobrist = null;
+        }
+    }
+
+    // counts[ply * COLUMNS + column], ply 0 being start itself; the last slot holds win-test disagreements
+    long[] run(MnkBoard start) {
+        if (seen != null) seen.add(key(start));
+        long[] counts = ForkJoinPool.commonPool().invoke(new Subtree(new MnkBoard(start), 0));
+        counts[POSITIONS]++;
+        return counts;
+    }
+
+    private final class Subtree extends RecursiveTask<long[]> {
+        private final MnkBoard board;
+        private final int ply;
+
+        Subtree(MnkBoard board, int ply) {
+            this.board = board;
+            this.ply = ply;
+        }
+
+        @Override
+        protected long[] compute() {
+            long[] counts = new long[(maxDepth + 1) * COLUMNS + 1];
+            if (ply >= SPLIT_PLIES) {
+                walk(board, ply, counts);
+                return counts;
+            }
+            // Split: one task per move that doesn't end the game, the finished ones counted here
+            char player = toMove(board);
+            List<Subtree> children = new ArrayList<>();
+            for (int cell = 0; cell < board.cellCount() && ply < maxDepth; cell++) {
+                if (!board.isEmpty(cell)) continue;
+                if (playAndScore(board, cell, player, ply + 1, counts)) {
+                    children.add(new Subtree(new MnkBoard(board), ply + 1));
+                }
+                board.undo(cell);
+            }
+            invokeAll(children);
+            for (Subtree child : children) {
+                long[] childCounts = child.join();
+                for (int i = 0; i < counts.length; i++) counts[i] += childCounts[i];
+            }
+            return counts;
+        }
+    }
+
+    private void walk(MnkBoard board, int ply, long[] counts) {
+        if (ply >= maxDepth) return;
+        char player = toMove(board);
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            if (!board.isEmpty(cell)) continue;
+            if (playAndScore(board, cell, player, ply + 1, counts)) walk(board, ply + 1, counts);
+            board.undo(cell);
+        }
+    }
+
+    // Plays cell and counts the position it makes; true if the game goes on from it and it should be expanded
+    private boolean playAndScore(MnkBoard board, int cell, char player, int ply, long[] counts) {
+        boolean wins = board.completesLine(cell, player);
+        board.play(cell, player);
+        if (check && wins != Tic.haveWon(board, board.row(cell), board.col(cell))) counts[counts.length - 1]++;
+        if (seen != null && !seen.add(key(board))) return false;
+        int row = ply * COLUMNS;
+        counts[row + POSITIONS]++;
+        if (wins) {
+            counts[row + (player == 'X' ? X_WINS : O_WINS)]++;
+            return false;
+        }
+        if (board.isFull()) {
+            counts[row + DRAWS]++;
+            return false;
+        }
+        return true;
+    }
+
+    private long key(MnkBoard board) {
+        long key = 0;
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            char c = board.get(cell);
+            if (zobrist == null) {
+                key = key * 3 + (c == 'X' ? 1 : c == 'O' ? 2 : 0);
+            } else if (c != ' ') {
+                key ^= zobrist[cell * 2 + (c == 'X' ? 0 : 1)];
+            }
+        }
+        return key;
+    }
+
+    private static char toMove(MnkBoard board) {
+        return (board.moveCount() & 1) == 0 ? 'X' : 'O';
+    }
+
+    public static void main(String[] args) {
+        int[] geometry = {3, 3, 3};
+        String moves = "";
+        int depth = Integer.MAX_VALUE;
+        boolean unique = false;
+        boolean check = false;
+        int repeat = 1;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--board":
+                    String[] parts = args[++i].split(",");
+                    for (int j = 0; j < 3; j++) geometry[j] = Integer.parseInt(parts[j].trim());
+                    break;
+                case "--moves": moves = args[++i]; break;
+                case "--depth": depth = Integer.parseInt(args[++i]); break;
+                case "--unique": unique = true; break;
+                case "--check": check = true; break;
+                case "--repeat": repeat = Integer.parseInt(args[++i]); break;
+                default:
+                    System.out.println("Usage: java tictactoe.Perft [--board rows,cols,k] [--moves c1,c2,...] [--depth N] [--unique] [--check] [--repeat N]");
+                    return;
+            }
+        }
+
+        MnkBoard start = new MnkBoard(geometry[0], geometry[1], geometry[2]);
+        for (String move : moves.split(",")) {
+            if (move.isBlank()) continue;
+            int cell = Integer.parseInt(move.trim());
+            if (cell < 0 || cell >= start.cellCount() || !start.isEmpty(cell)) {
+                System.out.println("Illegal move in --moves: " + cell);
+                return;
+            }
+            if (start.moveCount() > 0 && start.winningCells(start.lastMove()) != null) {
+                System.out.println("The game is already over before move " + cell);
+                return;
+            }
+            start.play(cell, toMove(start));
+        }
+        if (start.lastMove() >= 0 && start.winningCells(start.lastMove()) != null) depth = 0;
+
+        System.out.printf("Perft on %dx%d (k=%d) from %s, %s, %d threads%n", geometry[0], geometry[1], geometry[2],
+            start.moveCount() == 0 ? "the empty board" : "moves " + moves,
+            unique ? "unique positions" : "every path", ForkJoinPool.commonPool().getParallelism());
+        long[] counts = null;
+        long bestNanos = Long.MAX_VALUE;
+        for (int run = 0; run < repeat; run++) {
+            Perft perft = new Perft(start, depth, unique, check);
+            long begin = System.nanoTime();
+            counts = perft.run(start);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - begin);
+        }
+
+        System.out.printf("%5s %16s %14s %14s %14s%n", "Ply", "Positions", "X wins", "O wins", "Draws");
+        long[] total = new long[COLUMNS];
+        int plies = (counts.length - 1) / COLUMNS;
+        for (int ply = 0; ply < plies; ply++) {
+            long[] row = new long[COLUMNS];
+            for (int column = 0; column < COLUMNS; column++) {
+                row[column] = counts[ply * COLUMNS + column];
+                total[column] += row[column];
+            }
+            if (row[POSITIONS] == 0) continue;
+            System.out.printf("%5d %,16d %,14d %,14d %,14d%n", start.moveCount() + ply,
+                row[POSITIONS], row[X_WINS], row[O_WINS], row[DRAWS]);
+        }
+        long games = total[X_WINS] + total[O_WINS] + total[DRAWS];
+        System.out.printf("%5s %,16d %,14d %,14d %,14d%n", "Total", total[POSITIONS], total[X_WINS], total[O_WINS], total[DRAWS]);
+        System.out.printf("%,d finished games; %,d positions in %.1f ms (best of %d), %,.0f positions/s%n",
+            games, total[POSITIONS], bestNanos / 1e6, repeat, total[POSITIONS] / (bestNanos / 1e9));
+        if (check) System.out.printf("Win tests disagreed %,d times%n", counts[counts.length - 1]);
+    }
+}
@@ -0,0 +1,24 @@
+package tictactoe;
+
+// Outcome of an AI search: the chosen cell (-1 if none) plus what it cost
+public final class SearchResult {
+    public final int move;
+    public final int score;
+    public final int depth;
+    public final long nodes;
+    public final boolean complete;
+
+    public SearchResult(int move, int score, int depth, long nodes, boolean complete) {
+        this.move = move;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.complete = complete;
+    }
+
+    @Override
+    public String toString() {
+        return "move " + move + " score " + score + " depth " + depth + " nodes " + nodes
+            + (complete ? "" : " (budget hit)");
+    }
+}
@@ -0,0 +1,195 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Headless self-play: pits two AILevels against each other without the GUI.
+//
+//   java tictactoe.SelfPlay --a HARD --b EASY --games 1000000 --seed 42 --board 3,3,3 --swap [--journal games.tttj]
+//
+// Games are split into fixed-size chunks that run in parallel on the common
+// fork/join pool. Each chunk owns its board and a SplittableRandom seeded from
+// the master seed, so results only depend on the seed, never on thread timing.
+// With --swap the two levels alternate colors every game; otherwise A is X.
+// With --journal every game is also appended to a GameJournal: each chunk
+// encodes its games into its own buffer and appends it in one call, so the
+// journal holds whole chunks in completion order.
+public final class SelfPlay {
+    private static final int CHUNK_SIZE = 4096;
+
+    private final AILevel a;
+    private final AILevel b;
+    private final int rows;
+    private final int cols;
+    private final int k;
+    private final boolean swap;
+    private GameJournal journal;
+
+    SelfPlay(AILevel a, AILevel b, int rows, int cols, int k, boolean swap) {
+        this.a = a;
+        this.b = b;
+        this.rows = rows;
+        this.cols = cols;
+        this.k = k;
+        this.swap = swap;
+    }
+
+    // Win/draw/loss counts from A's point of view
+    static final class Tally {
+        long aWins;
+        long bWins;
+        long draws;
+        long moves;
+
+        long games() {
+            return aWins + bWins + draws;
+        }
+
+        Tally merge(Tally other) {
+            Tally sum = new Tally();
+            sum.aWins = aWins + other.aWins;
+            sum.bWins = bWins + other.bWins;
+            sum.draws = draws + other.draws;
+            sum.moves = moves + other.moves;
+            return sum;
+        }
+    }
+
+    // Also record every game to journal; null turns recording off
+    void setJournal(GameJournal journal) {
+        this.journal = journal;
+    }
+
+    Tally run(long games, long seed) {
+        int chunks = (int) ((games + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        long[] chunkSeeds = new long[chunks];
+        SplittableRandom master = new SplittableRandom(seed);
+        for (int i = 0; i < chunks; i++) {
+            chunkSeeds[i] = master.nextLong();
+        }
+        return IntStream.range(0, chunks).parallel()
+            .mapToObj(i -> playChunk((long) i * CHUNK_SIZE, Math.min(games, (long) (i + 1) * CHUNK_SIZE), chunkSeeds[i]))
+            .reduce(new Tally(), Tally::merge);
+    }
+
+    private Tally playChunk(long from, long to, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        MnkBoard board = new MnkBoard(rows, cols, k);
+        Tally tally = new Tally();
+        int[] moves = journal == null ? null : new int[board.cellCount()];
+        ByteBuffer records = journal == null ? null
+            : ByteBuffer.allocate((int) (to - from) * GameJournal.maxRecordBytes(board.cellCount()));
+        for (long game = from; game < to; game++) {
+            boolean aIsX = !swap || (game & 1) == 0;
+            AILevel x = aIsX ? a : b;
+            AILevel o = aIsX ? b : a;
+            char winner = playGame(board, x, o, random, moves);
+            if (records != null) GameJournal.encode(records, rows, cols, k, x, o, winner, moves, board.moveCount());
+            if (winner == ' ') {
+                tally.draws++;
+            } else if ((winner == 'X') == aIsX) {
+                tally.aWins++;
+            } else {
+                tally.bWins++;
+            }
+            tally.moves += board.moveCount();
+        }
+        if (records != null) {
+            try {
+                journal.append(records.flip());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return tally;
+    }
+
+    // Plays one game on a cleared board and returns 'X', 'O' or ' ' for a draw. The moves
+    // are stored in order in moves, unless it is null.
+    static char playGame(MnkBoard board, Strategy x, Strategy o, SplittableRandom random, int[] moves) {
+        board.clear();
+        char player = 'X';
+        while (true) {
+            int move = (player == 'X' ? x : o).chooseMove(board, player, random);
+            if (moves != null) moves[board.moveCount()] = move;
+            board.play(move, player);
+            if (board.completesLine(board.lastMove(), player)) return player;
+            if (board.isFull()) return ' ';
+            player = (player == 'X') ? 'O' : 'X';
+        }
+    }
+
+    // 95% Wilson score interval for count successes out of n trials, as {low, high}
+    static double[] wilson(long count, long n) {
+        if (n == 0) return new double[]{0, 0};
+        double z = 1.96;
+        double p = (double) count / n;
+        double denominator = 1 + z * z / n;
+        double center = (p + z * z / (2.0 * n)) / denominator;
+        double margin = z * Math.sqrt(p * (1 - p) / n + z * z / (4.0 * n * n)) / denominator;
+        return new double[]{center - margin, center + margin};
+    }
+
+    private static String rate(String label, long count, long n) {
+        double[] interval = wilson(count, n);
+        return String.format("%-12s %7.3f%%  (95%% CI %.3f%% - %.3f%%)", label,
+            100.0 * count / n, 100 * interval[0], 100 * interval[1]);
+    }
+
+    public static void main(String[] args) throws IOException {
+        AILevel a = AILevel.HARD;
+        AILevel b = AILevel.MEDIUM;
+        long games = 1_000_000;
+        long seed = 42;
+        int[] geometry = {3, 3, 3};
+        boolean swap = false;
+        Path journalPath = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--a": a = AILevel.valueOf(args[++i].toUpperCase()); break;
+                case "--b": b = AILevel.valueOf(args[++i].toUpperCase()); break;
+                case "--games": games = Long.parseLong(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--board":
+                    String[] parts = args[++i].split(",");
+                    for (int j = 0; j < 3; j++) geometry[j] = Integer.parseInt(parts[j].trim());
+                    break;
+                case "--swap": swap = true; break;
+                case "--journal": journalPath = Path.of(args[++i]); break;
+                default:
+                    System.out.println("Usage: java tictactoe.SelfPlay [--a LEVEL] [--b LEVEL] [--games N] [--seed S] [--board rows,cols,k] [--swap] [--journal file]");
+                    return;
+            }
+        }
+
+        if (journalPath != null && !MnkBoard.isSupported(geometry[0], geometry[1], geometry[2])) {
+            System.out.println("Only boards of up to " + MnkBoard.MAX_SIZE + "x" + MnkBoard.MAX_SIZE + " can be journaled");
+            return;
+        }
+        SelfPlay selfPlay = new SelfPlay(a, b, geometry[0], geometry[1], geometry[2], swap);
+        GameJournal journal = journalPath == null ? null : GameJournal.open(journalPath);
+        selfPlay.setJournal(journal);
+        long start = System.nanoTime();
+        Tally tally;
+        try {
+            tally = selfPlay.run(games, seed);
+        } finally {
+            if (journal != null) journal.close();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long n = tally.games();
+        System.out.printf("A=%s vs B=%s on %dx%d (k=%d), %,d games, seed %d, %s, %d threads%n",
+            a, b, geometry[0], geometry[1], geometry[2], n, seed, swap ? "alternating colors" : "A plays X",
+            Runtime.getRuntime().availableProcessors());
+        System.out.println(rate("A wins", tally.aWins, n));
+        System.out.println(rate("Draws", tally.draws, n));
+        System.out.println(rate("B wins", tally.bWins, n));
+        System.out.printf("Average length %.2f moves, %,.0f games/s (%.2f s)%n",
+            (double) tally.moves / n, n / seconds, seconds);
+    }
+}
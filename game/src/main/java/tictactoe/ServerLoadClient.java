@@ -0,0 +1,144 @@
+package tictactoe;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Load generator for GameServer. Opens a number of connections, each playing
+// random legal moves against the server's AI as fast as replies come back,
+// and reports moves/sec with p50/p99/max round-trip latency.
+//
+//   java tictactoe.ServerLoadClient [--host H] [--port P] [--connections N] [--seconds S]
+//                                   [--board rows,cols,k] [--level LEVEL] [--idle N]
+//
+// --idle first opens N games that are never played, to measure the server's
+// heap per idle game through STATS.
+public final class ServerLoadClient {
+    public static void main(String[] args) throws Exception {
+        String host = "localhost";
+        int port = GameServer.DEFAULT_PORT;
+        int connections = 32;
+        int seconds = 10;
+        String board = "3 3 3";
+        String level = "EASY";
+        int idle = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--host": host = args[++i]; break;
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                case "--connections": connections = Integer.parseInt(args[++i]); break;
+                case "--seconds": seconds = Integer.parseInt(args[++i]); break;
+                case "--board": board = args[++i].replace(',', ' '); break;
+                case "--level": level = args[++i].toUpperCase(); break;
+                case "--idle": idle = Integer.parseInt(args[++i]); break;
+                default:
+                    System.out.println("Usage: java tictactoe.ServerLoadClient [--host H] [--port P] [--connections N]"
+                        + " [--seconds S] [--board rows,cols,k] [--level LEVEL] [--idle N]");
+                    return;
+            }
+        }
+
+        if (idle > 0) openIdleGames(host, port, idle, board);
+
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong moves = new AtomicLong();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < connections; c++) {
+            final long seed = c;
+            final String h = host;
+            final int p = port;
+            final String newGame = "NEW " + board + " " + level;
+            Thread thread = new Thread(() -> play(h, p, newGame, deadline, seed, latency, moves), "load-" + c);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        long total = moves.get();
+        System.out.printf("%d connections, %d s: %,d moves, %,.0f moves/s%n", connections, seconds, total, total / (double) seconds);
+        System.out.printf("latency p50 %.1f us, p99 %.1f us, max %.1f us%n",
+            latency.percentile(0.50) / 1e3, latency.percentile(0.99) / 1e3, latency.max() / 1e3);
+    }
+
+    private static void play(String host, int port, String newGame, long deadline, long seed,
+                             LatencyHistogram latency, AtomicLong moves) {
+        SplittableRandom random = new SplittableRandom(seed);
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            socket.setTcpNoDelay(true);
+            String id = request(in, out, newGame).substring(3);
+            String[] cells = request(in, out, "STATE " + id).split(" ");
+            boolean[] occupied = new boolean[cells[1].length()];
+            int empty = occupied.length;
+            while (System.nanoTime() < deadline) {
+                // Walk to a random empty cell
+                int pick = random.nextInt(empty);
+                int cell = -1;
+                while (pick >= 0) {
+                    cell++;
+                    if (!occupied[cell]) pick--;
+                }
+                long start = System.nanoTime();
+                String[] reply = request(in, out, "MOVE " + id + " " + cell).split(" ");
+                latency.record(System.nanoTime() - start);
+                moves.incrementAndGet();
+                if (!reply[0].equals("OK")) throw new IOException(String.join(" ", reply));
+
+                occupied[cell] = true;
+                empty--;
+                boolean over = !reply[1].equals("NEXT");
+                if (!over && reply.length > 2 && reply[2].equals("AI")) {
+                    occupied[Integer.parseInt(reply[3])] = true;
+                    empty--;
+                    over = !reply[4].equals("NEXT");
+                }
+                if (over) {
+                    request(in, out, "RESET " + id);
+                    Arrays.fill(occupied, false);
+                    empty = occupied.length;
+                }
+            }
+            request(in, out, "CLOSE " + id);
+        } catch (IOException e) {
+            System.err.println("Connection failed: " + e.getMessage());
+        }
+    }
+
+    private static void openIdleGames(String host, int port, int count, String board) throws IOException {
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            String before = request(in, out, "STATS");
+            // Pipeline the requests in batches rather than waiting on each reply
+            int batch = 1000;
+            for (int sent = 0; sent < count; sent += batch) {
+                int n = Math.min(batch, count - sent);
+                for (int i = 0; i < n; i++) out.write("NEW " + board + "\n");
+                out.flush();
+                for (int i = 0; i < n; i++) in.readLine();
+            }
+            System.out.println("Opened " + count + " idle games. Before: " + before + ", after: " + request(in, out, "STATS"));
+        }
+    }
+
+    private static String request(BufferedReader in, Writer out, String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+        out.flush();
+        String reply = in.readLine();
+        if (reply == null) throw new IOException("server closed the connection");
+        return reply;
+    }
+}
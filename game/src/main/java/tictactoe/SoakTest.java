@@ -0,0 +1,428 @@
+package tictactoe;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Headless soak test: thousands of simulated players against GameSession and
+// the AI, for as long as it is left running, with a report line every
+// interval so slow leaks and creeping latency show up as trends.
+//
+//   java tictactoe.SoakTest [--players 2000] [--duration 1h] [--interval 10s] [--board 3,3,3] [--level MEDIUM]
+//                           [--human EASY|<strategy>|script:<file>] [--think exp:800] [--ai-think 0]
+//                           [--ai-millis 1000] [--ai-nodes 10000] [--threads N] [--seed 42]
+//
+// Each player owns a session and plays X against an AI level, thinking
+// between moves for a time drawn from --think:
+//
+//   exp:<mean ms>   uniform:<min>-<max>   lognormal:<median ms>,<sigma>   fixed:<ms>   0
+//
+// and picking moves with a Strategy (EASY plays at random) or from a script
+// file, one game per line of cells (comma or space separated, used in turn;
+// a cell that is taken or missing falls back to a random one). --ai-think
+// holds each AI reply back like Main's minimum think time; --ai-millis and
+// --ai-nodes are the budget of each AI decision. Between games a
+// player thinks once more and starts again on the same session.
+//
+// Players don't get threads: a turn is a task on a scheduled pool of
+// --threads workers (every core by default), queued again after the next
+// think time, so 10,000 players cost 10,000 small objects. A turn that
+// starts later than it was due shows up as lag; if lag grows, the workers
+// can't keep up with the offered load and the latencies understate it.
+//
+// Every interval prints games and moves per second, p50/p99 of the human's
+// move (GameSession.play) and of AI decisions, p99 lag, heap in use after the
+// last collection, and the collections and their pause time. The summary at
+// the end fits a line through the post-GC heap samples (skipping the first
+// interval, which includes warm-up), so a leak shows up as MB per hour.
+// After a young collection the old generation still holds whatever garbage
+// was promoted, so the trend is only worth reading over a run long enough
+// to see old collections too.
+public final class SoakTest {
+    private final GameParameters parameters;
+    private final ScheduledThreadPoolExecutor pool;
+
+    // Recorded into the current half; the reporter flips halves every interval and drains the other
+    private final LatencyHistogram[] moveLatency = {new LatencyHistogram(), new LatencyHistogram()};
+    private final LatencyHistogram[] aiLatency = {new LatencyHistogram(), new LatencyHistogram()};
+    private final LatencyHistogram[] lag = {new LatencyHistogram(), new LatencyHistogram()};
+    private final LatencyHistogram[] gcPauses = {new LatencyHistogram(), new LatencyHistogram()};
+    private final LongAdder[] gcNanos = {new LongAdder(), new LongAdder()};
+    private volatile int half;
+    private final LatencyHistogram totalMoves = new LatencyHistogram();
+    private final LatencyHistogram totalAi = new LatencyHistogram();
+    private final LatencyHistogram totalLag = new LatencyHistogram();
+    private final LatencyHistogram totalGc = new LatencyHistogram();
+    private long totalGcNanos;
+    // Heap in use after the latest collection, over every heap pool; -1 until the first one
+    private volatile long heapAfterGc = -1;
+    private final LongAdder games = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    // What every player is set up with
+    private static final class GameParameters {
+        int rows = 3;
+        int cols = 3;
+        int k = 3;
+        AILevel level = AILevel.MEDIUM;
+        Strategy human = AILevel.EASY;
+        List<int[]> script;
+        ThinkTime think = ThinkTime.parse("exp:800");
+        long aiThinkNanos;
+        long aiMillis = 1000;
+        long aiNodes = 10_000;
+    }
+
+    // Think time in nanoseconds, drawn per move
+    private interface ThinkTime {
+        long sample(SplittableRandom random);
+
+        static ThinkTime parse(String spec) {
+            String[] parts = spec.split(":", 2);
+            String[] values = parts.length > 1 ? parts[1].split("[-,]") : new String[0];
+            switch (parts[0]) {
+                case "0": return random -> 0;
+                case "fixed": {
+                    long nanos = millis(values[0]);
+                    return random -> nanos;
+                }
+                case "exp": {
+                    double mean = millis(values[0]);
+                    return random -> (long) (-mean * Math.log(1 - random.nextDouble()));
+                }
+                case "uniform": {
+                    long min = millis(values[0]);
+                    long max = millis(values[1]);
+                    return random -> min + (long) (random.nextDouble() * (max - min));
+                }
+                case "lognormal": {
+                    double median = millis(values[0]);
+                    double sigma = Double.parseDouble(values[1]);
+                    return random -> (long) (median * Math.exp(sigma * gaussian(random)));
+                }
+                default: throw new IllegalArgumentException("Unknown think time: " + spec);
+            }
+        }
+
+        private static long millis(String value) {
+            return (long) (Double.parseDouble(value) * 1_000_000);
+        }
+
+        // Box-Muller; SplittableRandom has no nextGaussian
+        private static double gaussian(SplittableRandom random) {
+            return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        }
+    }
+
+    SoakTest(GameParameters parameters, int threads) {
+        this.parameters = parameters;
+        this.pool = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "soak-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.setRemoveOnCancelPolicy(true);
+        listenForCollections();
+    }
+
+    // One simulated human and the AI they play. Only one of its turns is ever queued, so it needs no locking.
+    private final class Player implements Runnable {
+        private final GameSession session;
+        private final SplittableRandom random;
+        private int scriptLine;
+        private int[] script;
+        private long dueNanos;
+
+        Player(SplittableRandom random) {
+            this.session = new GameSession(parameters.rows, parameters.cols, parameters.k);
+            this.random = random;
+            this.scriptLine = parameters.script == null ? 0 : random.nextInt(parameters.script.size());
+            startGame();
+        }
+
+        void schedule(long delayNanos) {
+            if (pool.isShutdown()) return;
+            dueNanos = System.nanoTime() + delayNanos;
+            pool.schedule(this, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() {
+            int h = half;
+            lag[h].record(System.nanoTime() - dueNanos);
+            try {
+                turn(h);
+            } catch (RuntimeException e) {
+                // A broken player is a finding, not a reason to stop the others
+                failures.increment();
+                System.err.println("Player failed: " + e);
+                session.reset();
+                startGame();
+                schedule(parameters.think.sample(random));
+            }
+        }
+
+        private void turn(int h) {
+            if (!session.isActive()) {
+                session.reset();
+                startGame();
+            }
+            MnkBoard board = session.board();
+            char player = session.currentPlayer();
+            if (player == 'X') {
+                long start = System.nanoTime();
+                GameSession.MoveResult result = session.play(humanMove(board, player));
+                moveLatency[h].record(System.nanoTime() - start);
+                moves.increment();
+                if (result == GameSession.MoveResult.ILLEGAL) throw new IllegalStateException("illegal human move");
+                if (result != GameSession.MoveResult.NEXT_TURN) {
+                    games.increment();
+                    schedule(parameters.think.sample(random));
+                } else {
+                    schedule(parameters.aiThinkNanos);
+                }
+            } else {
+                long start = System.nanoTime();
+                SearchResult decision = AIService.decide(board, player, parameters.level, parameters.aiMillis,
+                    parameters.aiNodes);
+                aiLatency[h].record(System.nanoTime() - start);
+                GameSession.MoveResult result = session.play(decision.move);
+                moves.increment();
+                if (result == GameSession.MoveResult.ILLEGAL) throw new IllegalStateException("illegal AI move");
+                if (result != GameSession.MoveResult.NEXT_TURN) games.increment();
+                schedule(parameters.think.sample(random));
+            }
+        }
+
+        private void startGame() {
+            if (parameters.script == null) return;
+            script = parameters.script.get(scriptLine);
+            scriptLine = (scriptLine + 1) % parameters.script.size();
+        }
+
+        private int humanMove(MnkBoard board, char player) {
+            if (script != null) {
+                int index = board.moveCount() / 2;
+                if (index < script.length && script[index] >= 0 && script[index] < board.cellCount()
+                    && board.isEmpty(script[index])) {
+                    return script[index];
+                }
+                return board.nthEmpty(random.nextInt(board.emptyCount()));
+            }
+            return parameters.human.chooseMove(board, player, random);
+        }
+    }
+
+    private void listenForCollections() {
+        Set<String> heapPools = new HashSet<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) heapPools.add(pool.getName());
+        }
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(collector instanceof NotificationEmitter)) continue;
+            ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+                if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+                    return;
+                }
+                GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                // Concurrent collectors report whole cycles here, not just their pauses
+                long nanos = info.getGcInfo().getDuration() * 1_000_000;
+                int h = half;
+                gcPauses[h].record(nanos);
+                gcNanos[h].add(nanos);
+                // Every pool, not just the ones this collector touched: a young collection leaves the
+                // old generation as it was, and its pool's own collection usage only moves on a full one
+                long used = 0;
+                for (Map.Entry<String, MemoryUsage> pool : info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+                    if (heapPools.contains(pool.getKey())) used += pool.getValue().getUsed();
+                }
+                heapAfterGc = used;
+            }, null, null);
+        }
+    }
+
+    void run(int players, long durationNanos, long intervalNanos, long seed) {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int i = 0; i < players; i++) {
+            Player player = new Player(seeds.split());
+            // Spread the first moves out rather than starting everyone at once
+            player.schedule(parameters.think.sample(player.random) + (long) (seeds.nextDouble() * intervalNanos));
+        }
+
+        System.out.printf("%,d players on %dx%d (k=%d) against %s, %d workers%n", players, parameters.rows,
+            parameters.cols, parameters.k, parameters.level, pool.getCorePoolSize());
+        System.out.printf("%8s %9s %10s %9s %9s %9s %9s %10s %9s %9s %5s %8s %8s%n", "Time s", "Games/s", "Moves/s",
+            "Move p50", "Move p99", "AI p50", "AI p99", "AI max", "Lag p99", "Heap MB", "GCs", "GC ms", "GC max");
+        System.out.printf("%8s %9s %10s %9s %9s %9s %9s %10s %9s %9s %5s %8s %8s%n", "", "", "",
+            "us", "us", "us", "us", "us", "ms", "after GC", "", "", "ms");
+
+        long start = System.nanoTime();
+        long end = start + durationNanos;
+        long lastGames = 0;
+        long lastMoves = 0;
+        List<double[]> heapSamples = new ArrayList<>();
+        for (long tick = start + intervalNanos; tick <= end; tick += intervalNanos) {
+            long wait;
+            while ((wait = tick - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            // Flip halves, then drain the one no longer being written (a record racing the flip may be lost)
+            int old = half;
+            half = 1 - old;
+            double seconds = intervalNanos / 1e9;
+            long gamesNow = games.sum();
+            long movesNow = moves.sum();
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            // Nothing has been collected yet in the first intervals of a run with a big heap
+            long heapBytes = heapAfterGc;
+            boolean collected = heapBytes >= 0;
+            double heap = heapBytes / 1e6;
+            if (collected) heapSamples.add(new double[]{elapsed, heap});
+            System.out.printf("%8.0f %,9.0f %,10.0f %9.1f %9.1f %9.1f %9.1f %,10.0f %9.1f %9s %5d %8.0f %8.1f%n",
+                elapsed, (gamesNow - lastGames) / seconds, (movesNow - lastMoves) / seconds,
+                moveLatency[old].percentile(0.50) / 1e3, moveLatency[old].percentile(0.99) / 1e3,
+                aiLatency[old].percentile(0.50) / 1e3, aiLatency[old].percentile(0.99) / 1e3,
+                aiLatency[old].max() / 1e3, lag[old].percentile(0.99) / 1e6,
+                collected ? String.format("%.1f", heap) : "-",
+                gcPauses[old].count(), gcNanos[old].sum() / 1e6, gcPauses[old].max() / 1e6);
+            lastGames = gamesNow;
+            lastMoves = movesNow;
+            drain(moveLatency[old], totalMoves);
+            drain(aiLatency[old], totalAi);
+            drain(lag[old], totalLag);
+            drain(gcPauses[old], totalGc);
+            totalGcNanos += gcNanos[old].sumThenReset();
+        }
+        pool.shutdownNow();
+        summarize((System.nanoTime() - start) / 1e9, heapSamples);
+    }
+
+    private static void drain(LatencyHistogram interval, LatencyHistogram total) {
+        total.add(interval);
+        interval.reset();
+    }
+
+    private void summarize(double seconds, List<double[]> heapSamples) {
+        System.out.println();
+        System.out.printf("%,.0f s: %,d games, %,d moves (%,.0f moves/s), %,d failures%n",
+            seconds, games.sum(), moves.sum(), moves.sum() / seconds, failures.sum());
+        System.out.printf("Human move p50 %.1f us, p99 %.1f us, max %.1f us%n", totalMoves.percentile(0.50) / 1e3,
+            totalMoves.percentile(0.99) / 1e3, totalMoves.max() / 1e3);
+        System.out.printf("AI decision p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+            totalAi.percentile(0.50) / 1e3, totalAi.percentile(0.99) / 1e3, totalAi.percentile(0.999) / 1e3,
+            totalAi.max() / 1e3);
+        System.out.printf("Turn lag p99 %.1f ms, max %.1f ms%n", totalLag.percentile(0.99) / 1e6, totalLag.max() / 1e6);
+        System.out.printf("GC: %,d collections, %.0f ms in total, p99 %.1f ms, max %.1f ms%n", totalGc.count(),
+            totalGcNanos / 1e6, totalGc.percentile(0.99) / 1e6, totalGc.max() / 1e6);
+
+        // Least-squares slope of post-GC heap against time, past the first interval
+        List<double[]> samples = heapSamples.size() > 2 ? heapSamples.subList(1, heapSamples.size()) : heapSamples;
+        if (samples.size() < 2) return;
+        double meanT = 0;
+        double meanH = 0;
+        for (double[] s : samples) {
+            meanT += s[0] / samples.size();
+            meanH += s[1] / samples.size();
+        }
+        double covariance = 0;
+        double variance = 0;
+        for (double[] s : samples) {
+            covariance += (s[0] - meanT) * (s[1] - meanH);
+            variance += (s[0] - meanT) * (s[0] - meanT);
+        }
+        double slope = variance == 0 ? 0 : covariance / variance;
+        System.out.printf("Heap after GC: %.1f MB first, %.1f MB last, trend %+.2f MB/hour%n",
+            samples.get(0)[1], samples.get(samples.size() - 1)[1], slope * 3600);
+    }
+
+    // "90s", "30m", "2h"; a bare number is seconds
+    private static long parseDuration(String text) {
+        char unit = text.charAt(text.length() - 1);
+        double value = Double.parseDouble(Character.isDigit(unit) ? text : text.substring(0, text.length() - 1));
+        double seconds = unit == 'h' ? value * 3600 : unit == 'm' ? value * 60 : value;
+        return (long) (seconds * 1e9);
+    }
+
+    private static List<int[]> readScript(Path path) throws IOException {
+        List<int[]> games = new ArrayList<>();
+        for (String line : Files.readAllLines(path)) {
+            if (line.isBlank() || line.startsWith("#")) continue;
+            String[] cells = line.trim().split("[,\\s]+");
+            int[] moves = new int[cells.length];
+            for (int i = 0; i < cells.length; i++) moves[i] = Integer.parseInt(cells[i]);
+            games.add(moves);
+        }
+        if (games.isEmpty()) throw new IOException("no games in " + path);
+        return games;
+    }
+
+    public static void main(String[] args) throws IOException {
+        GameParameters parameters = new GameParameters();
+        int players = 2000;
+        long duration = parseDuration("60s");
+        long interval = parseDuration("10s");
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 42;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--players": players = Integer.parseInt(args[++i]); break;
+                case "--duration": duration = parseDuration(args[++i]); break;
+                case "--interval": interval = parseDuration(args[++i]); break;
+                case "--board":
+                    String[] parts = args[++i].split(",");
+                    parameters.rows = Integer.parseInt(parts[0].trim());
+                    parameters.cols = Integer.parseInt(parts[1].trim());
+                    parameters.k = Integer.parseInt(parts[2].trim());
+                    break;
+                case "--level": parameters.level = AILevel.valueOf(args[++i].toUpperCase()); break;
+                case "--human": {
+                    String human = args[++i];
+                    if (human.startsWith("script:")) {
+                        parameters.script = readScript(Path.of(human.substring("script:".length())));
+                    } else {
+                        parameters.human = Strategies.parse(human);
+                    }
+                    break;
+                }
+                case "--think": parameters.think = ThinkTime.parse(args[++i]); break;
+                case "--ai-think": parameters.aiThinkNanos = (long) (Double.parseDouble(args[++i]) * 1_000_000); break;
+                case "--ai-millis": parameters.aiMillis = Long.parseLong(args[++i]); break;
+                case "--ai-nodes": parameters.aiNodes = Long.parseLong(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                default:
+                    System.out.println("Usage: java tictactoe.SoakTest [--players N] [--duration 1h] [--interval 10s]"
+                        + " [--board rows,cols,k] [--level LEVEL] [--human EASY|<strategy>|script:<file>]"
+                        + " [--think exp:<ms>|uniform:<min>-<max>|lognormal:<ms>,<sigma>|fixed:<ms>|0]"
+                        + " [--ai-think ms] [--ai-millis ms] [--ai-nodes N] [--threads N] [--seed S]");
+                    return;
+            }
+        }
+        new SoakTest(parameters, threads).run(players, duration, interval, seed);
+    }
+}
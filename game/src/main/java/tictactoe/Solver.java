@@ -0,0 +1,215 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Perfect-play 3x3 solver: negamax with alpha-beta pruning over the bitboard,
+// a Zobrist-hashed transposition table, and positions folded together under
+// the 8 symmetries of the square. The table persists between calls, so after
+// the first search every later answer is a handful of probes.
+public final class Solver {
+    public static final int WIN_SCORE = Board.CELLS + 1;
+
+    // Center, corners, then edges: the strongest moves first prunes the most
+    private static final int[] MOVE_ORDER = {4, 0, 2, 6, 8, 1, 3, 5, 7};
+    static final int[][] SYMMETRIES = buildSymmetries();
+    private static final long[][] ZOBRIST = new long[2][Board.CELLS];
+
+    private static final int TABLE_SIZE = 1 << 12;
+    private static final byte EXACT = 0;
+    private static final byte LOWER = 1;
+    private static final byte UPPER = 2;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x7A3C_51E9L);
+        for (int color = 0; color < 2; color++) {
+            for (int cell = 0; cell < Board.CELLS; cell++) {
+                ZOBRIST[color][cell] = random.nextLong();
+            }
+        }
+    }
+
+    private final long[] tableKeys = new long[TABLE_SIZE];
+    private final byte[] tableScores = new byte[TABLE_SIZE];
+    private final byte[] tableFlags = new byte[TABLE_SIZE];
+    private final boolean[] tableUsed = new boolean[TABLE_SIZE];
+
+    // One running Zobrist hash per symmetry; the canonical hash is their minimum
+    private final long[] hashes = new long[SYMMETRIES.length];
+    private long nodes;
+    private long tableProbes;
+    private long tableHits;
+    private int lastScore;
+
+    // Returns the best cell for player to move, or -1 if the game is over
+    public int bestMove(Board board, char player) {
+        char opponent = player == 'X' ? 'O' : 'X';
+        int mover = board.mask(player);
+        int other = board.mask(opponent);
+        if (Board.isWin(mover) || Board.isWin(other)) return -1;
+        int empty = board.emptyMask();
+        if (empty == 0) return -1;
+
+        nodes = 0;
+        tableProbes = 0;
+        tableHits = 0;
+        loadHashes(board);
+        int color = player == 'X' ? 0 : 1;
+        int ply = Integer.bitCount(mover | other);
+        int alpha = -WIN_SCORE;
+        int bestCell = -1;
+        for (int cell : MOVE_ORDER) {
+            int bit = 1 << cell;
+            if ((empty & bit) == 0) continue;
+            int next = mover | bit;
+            int score;
+            if (Board.isWin(next)) {
+                score = WIN_SCORE - (ply + 1);
+            } else {
+                toggle(color, cell);
+                score = -negamax(other, next, 1 - color, -WIN_SCORE, -alpha);
+                toggle(color, cell);
+            }
+            if (bestCell < 0 || score > alpha) {
+                alpha = score;
+                bestCell = cell;
+            }
+        }
+        lastScore = alpha;
+        return bestCell;
+    }
+
+    // Game value for player to move: positive wins, negative loses, 0 draws.
+    // The magnitude is WIN_SCORE minus the ply on which the game ends.
+    public int evaluate(Board board, char player) {
+        char opponent = player == 'X' ? 'O' : 'X';
+        int mover = board.mask(player);
+        int other = board.mask(opponent);
+        int ply = Integer.bitCount(mover | other);
+        nodes = 0;
+        tableProbes = 0;
+        tableHits = 0;
+        if (Board.isWin(other)) return lastScore = -(WIN_SCORE - ply);
+        if (Board.isWin(mover)) return lastScore = WIN_SCORE - ply;
+        loadHashes(board);
+        return lastScore = negamax(mover, other, player == 'X' ? 0 : 1, -WIN_SCORE, WIN_SCORE);
+    }
+
+    // Nodes visited by the most recent bestMove or evaluate call
+    public long nodes() {
+        return nodes;
+    }
+
+    // Transposition table lookups by the most recent call, and how many found their position
+    public long tableProbes() {
+        return tableProbes;
+    }
+
+    public long tableHits() {
+        return tableHits;
+    }
+
+    public int lastScore() {
+        return lastScore;
+    }
+
+    private int negamax(int mover, int other, int color, int alpha, int beta) {
+        nodes++;
+        int occupied = mover | other;
+        int empty = Board.FULL_MASK & ~occupied;
+        if (empty == 0) return 0;
+        int ply = Integer.bitCount(occupied);
+
+        long key = canonicalHash();
+        int slot = (int) (key ^ (key >>> 32)) & (TABLE_SIZE - 1);
+        tableProbes++;
+        if (tableUsed[slot] && tableKeys[slot] == key) {
+            tableHits++;
+            int stored = tableScores[slot];
+            byte flag = tableFlags[slot];
+            if (flag == EXACT) return stored;
+            if (flag == LOWER && stored > alpha) alpha = stored;
+            else if (flag == UPPER && stored < beta) beta = stored;
+            if (alpha >= beta) return stored;
+        }
+
+        int originalAlpha = alpha;
+        int best = -WIN_SCORE;
+        for (int cell : MOVE_ORDER) {
+            int bit = 1 << cell;
+            if ((empty & bit) == 0) continue;
+            int next = mover | bit;
+            int score;
+            if (Board.isWin(next)) {
+                score = WIN_SCORE - (ply + 1);
+            } else {
+                toggle(color, cell);
+                score = -negamax(other, next, 1 - color, -beta, -alpha);
+                toggle(color, cell);
+            }
+            if (score > best) best = score;
+            if (best > alpha) alpha = best;
+            if (alpha >= beta) break;
+        }
+
+        // Scores only depend on the ply, which the position fixes, so they are safe to share
+        tableUsed[slot] = true;
+        tableKeys[slot] = key;
+        tableScores[slot] = (byte) best;
+        tableFlags[slot] = best <= originalAlpha ? UPPER : best >= beta ? LOWER : EXACT;
+        return best;
+    }
+
+    private void loadHashes(Board board) {
+        Arrays.fill(hashes, 0L);
+        for (int cell = 0; cell < Board.CELLS; cell++) {
+            char c = board.get(Board.row(cell), Board.col(cell));
+            if (c != ' ') toggle(c == 'X' ? 0 : 1, cell);
+        }
+    }
+
+    private void toggle(int color, int cell) {
+        for (int s = 0; s < SYMMETRIES.length; s++) {
+            hashes[s] ^= ZOBRIST[color][SYMMETRIES[s][cell]];
+        }
+    }
+
+    private long canonicalHash() {
+        long min = hashes[0];
+        for (int s = 1; s < hashes.length; s++) {
+            if (hashes[s] < min) min = hashes[s];
+        }
+        return min;
+    }
+
+    // SYMMETRIES[s][cell] is where cell lands under symmetry s: 4 rotations, each optionally mirrored
+    private static int[][] buildSymmetries() {
+        int[][] result = new int[8][Board.CELLS];
+        for (int s = 0; s < 8; s++) {
+            for (int cell = 0; cell < Board.CELLS; cell++) {
+                int row = Board.row(cell);
+                int col = Board.col(cell);
+                if (s >= 4) col = Board.SIZE - 1 - col;
+                for (int turn = 0; turn < s % 4; turn++) {
+                    int rotated = col;
+                    col = Board.SIZE - 1 - row;
+                    row = rotated;
+                }
+                result[s][cell] = Board.index(row, col);
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        Solver solver = new Solver();
+        Board board = new Board();
+        for (int round = 1; round <= 2; round++) {
+            long start = System.nanoTime();
+            int cell = solver.bestMove(board, 'X');
+            long micros = (System.nanoTime() - start) / 1_000;
+            System.out.println((round == 1 ? "cold" : "warm") + ": move " + cell
+                + " score " + solver.lastScore() + " nodes " + solver.nodes() + " in " + micros + " us");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package tictactoe;
+
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+// Strategies beyond the fixed AILevels, and the names the headless tools
+// use for them:
+//
+//   EASY, MEDIUM, HARD, MCTS   the AILevels
+//   SEARCH:<nodes>             IterativeSearch with a node budget per move
+//   MCTS:<playouts>            single-threaded MctsSearch with a playout budget per move
+//
+// Budgets are in nodes and playouts rather than time so results don't
+// depend on the machine or on how many games run alongside.
+public final class Strategies {
+    private Strategies() {
+    }
+
+    public static Strategy parse(String name) {
+        String upper = name.trim().toUpperCase(Locale.ROOT);
+        int colon = upper.indexOf(':');
+        if (colon < 0) return AILevel.valueOf(upper);
+        long budget = Long.parseLong(upper.substring(colon + 1));
+        if (budget <= 0) throw new IllegalArgumentException("budget must be positive: " + name);
+        switch (upper.substring(0, colon)) {
+            case "SEARCH": return search(budget);
+            case "MCTS": return mcts(budget);
+            default: throw new IllegalArgumentException("unknown strategy " + name);
+        }
+    }
+
+    public static Strategy search(long nodeBudget) {
+        return new Strategy() {
+            @Override
+            public String name() {
+                return "SEARCH:" + nodeBudget;
+            }
+
+            @Override
+            public int chooseMove(MnkBoard board, char player, RandomGenerator random) {
+                int fallback = GameAI.getHeuristicMove(board, player, random);
+                return new IterativeSearch(board, 0, nodeBudget).search(player, fallback).move;
+            }
+        };
+    }
+
+    public static Strategy mcts(long playouts) {
+        return new Strategy() {
+            @Override
+            public String name() {
+                return "MCTS:" + playouts;
+            }
+
+            @Override
+            public int chooseMove(MnkBoard board, char player, RandomGenerator random) {
+                return new MctsSearch(null, 1, playouts, 0, random.nextLong()).search(board, player).move;
+            }
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package tictactoe;
+
+import java.util.random.RandomGenerator;
+
+// A way of choosing moves. The AILevels are strategies, and so is anything
+// Strategies.parse builds, so SelfPlay, Tournament and the other headless
+// tools can pit any of them against each other without knowing what they are.
+//
+// chooseMove returns a cell (row * cols + col) or -1 when the board is full.
+// It may play and undo moves on board but must leave it as it found it, and
+// should draw any randomness from random so games replay from a seed.
+// Implementations are called from many threads at once with different boards.
+public interface Strategy {
+    // Short name for reports; AILevels use their constant name
+    String name();
+
+    int chooseMove(MnkBoard board, char player, RandomGenerator random);
+}
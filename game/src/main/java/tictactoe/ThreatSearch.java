@@ -0,0 +1,385 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Threat-space search for k in a row: finds victories by continuous fours
+// (VCF), where every attacking move threatens to win at once so the
+// defender's reply is forced, until the attacker has two threats at once or
+// the defender can't block. Because the defender never has a choice, this
+// reads sequences dozens of plies deep that a full-width search never
+// reaches. It also finds forced defenses: if the opponent has a VCF, the
+// moves on its line are tried until one leaves the opponent without one.
+//
+// A "four" here is any k-cell window holding k-1 stones of one side and no
+// stone of the other, so it is one move from winning; a "three" has k-2, and
+// playing either of its empty cells makes a four. Every window's stone counts
+// are updated on play and undo, and the windows that are fours or threes for
+// each side are kept in sets, so threats are regenerated incrementally from
+// the windows through the last move rather than by rescanning the board.
+// Positions already shown to have no VCF are remembered by Zobrist hash.
+//
+// All calls on one instance share its node budget; when it runs out the
+// search gives up and reports no result rather than a wrong one.
+public final class ThreatSearch {
+    private static final int FAILED_TABLE_SIZE = 1 << 14;
+    private static final int MAX_ZOBRIST_CELLS = 4096;
+    private static final long[] ZOBRIST = zobrist();
+
+    private final int k;
+    private final byte[] cells;
+    private final int[] windowCells;
+    private final int[] cellWindowStart;
+    private final int[] cellWindows;
+    private final int[][] counts;
+    private final WindowSet[] fours;
+    private final WindowSet[] threes;
+    private final long nodeBudget;
+    private final long[] failed = new long[FAILED_TABLE_SIZE];
+    private final int[][] candidatesByPly;
+    private final int[] marks;
+    private int mark;
+    private long hash;
+    private long nodes;
+    private boolean stopped;
+
+    // The attacker's moves and the cells they finally win on, from the last VCF found
+    private final int[] line;
+    private int lineLength;
+    private int winPlies;
+
+    // Searches a private copy of board; nodeBudget <= 0 means unlimited
+    public ThreatSearch(MnkBoard board, long nodeBudget) {
+        this.k = board.k();
+        this.nodeBudget = nodeBudget > 0 ? nodeBudget : Long.MAX_VALUE;
+        int rows = board.rows();
+        int cols = board.cols();
+        int cellCount = board.cellCount();
+        this.cells = new byte[cellCount];
+
+        // Every window of k cells in a row, in each of the four directions
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        int[] starts = new int[4 * cellCount];
+        int[] steps = new int[4 * cellCount];
+        int windowCount = 0;
+        for (int[] d : directions) {
+            for (int cell = 0; cell < cellCount; cell++) {
+                int endRow = board.row(cell) + (k - 1) * d[0];
+                int endCol = board.col(cell) + (k - 1) * d[1];
+                if (endRow < rows && endCol >= 0 && endCol < cols) {
+                    starts[windowCount] = cell;
+                    steps[windowCount++] = d[0] * cols + d[1];
+                }
+            }
+        }
+        int[] perCell = new int[cellCount];
+        this.windowCells = new int[windowCount * k];
+        for (int w = 0; w < windowCount; w++) {
+            for (int i = 0; i < k; i++) {
+                int cell = starts[w] + i * steps[w];
+                windowCells[w * k + i] = cell;
+                perCell[cell]++;
+            }
+        }
+        this.cellWindowStart = new int[cellCount + 1];
+        for (int cell = 0; cell < cellCount; cell++) {
+            cellWindowStart[cell + 1] = cellWindowStart[cell] + perCell[cell];
+        }
+        this.cellWindows = new int[cellWindowStart[cellCount]];
+        int[] fill = Arrays.copyOf(cellWindowStart, cellCount);
+        for (int w = 0; w < windowCount; w++) {
+            for (int i = 0; i < k; i++) {
+                int cell = windowCells[w * k + i];
+                cellWindows[fill[cell]++] = w;
+            }
+        }
+
+        this.counts = new int[][]{new int[windowCount], new int[windowCount]};
+        this.fours = new WindowSet[]{new WindowSet(windowCount), new WindowSet(windowCount)};
+        this.threes = new WindowSet[]{new WindowSet(windowCount), new WindowSet(windowCount)};
+        this.candidatesByPly = new int[cellCount / 2 + 2][];
+        this.marks = new int[cellCount];
+        this.line = new int[cellCount + 2];
+        for (int w = 0; w < windowCount; w++) {
+            link(w);
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            char piece = board.get(cell);
+            if (piece != ' ') play(cell, side(piece));
+        }
+    }
+
+    public long nodes() {
+        return nodes;
+    }
+
+    // Whether a search gave up on the node budget
+    public boolean budgetHit() {
+        return stopped;
+    }
+
+    // Plies from the first attacking move to the winning one, for the last VCF found
+    public int winPlies() {
+        return winPlies;
+    }
+
+    // First move of a VCF for attacker, as if it were attacker's turn, or -1 if there is none
+    // (or none within the budget). An immediate win counts as a VCF of one move.
+    public int findWin(char attacker) {
+        if (k < 3) return -1;
+        lineLength = 0;
+        return attack(side(attacker), 0) ? line[0] : -1;
+    }
+
+    // For defender to move: -1 if the opponent has no VCF, otherwise a move after which it no
+    // longer has one, or -1 if none of the moves tried holds (or the budget ran out first)
+    public int findDefense(char defender) {
+        if (k < 3) return -1;
+        int d = side(defender);
+        int a = 1 - d;
+        lineLength = 0;
+        if (!attack(a, 0) || stopped) return -1;
+
+        // Cells on the opponent's line, then every four of our own, which the opponent must answer
+        int[] tries = Arrays.copyOf(line, lineLength);
+        int[] candidates = collectThreeCells(d, tries.length + 1);
+        int[] all = Arrays.copyOf(tries, tries.length + candidates[0]);
+        System.arraycopy(candidates, 1, all, tries.length, candidates[0]);
+        int plies = winPlies;
+        for (int move : all) {
+            if (stopped) break;
+            if (cells[move] != 0) continue;
+            boolean won = play(move, d);
+            boolean holds = won || (fours[a].size == 0 && !stillAttacked(a) && !stopped);
+            undo(move, d);
+            if (holds) {
+                winPlies = plies;
+                return move;
+            }
+        }
+        winPlies = plies;
+        return -1;
+    }
+
+    // After the defender's move, with attacker a to reply: true if a still has a VCF. A four of the
+    // defender's only buys a tempo, so the VCF is looked for again after a's forced block; two fours
+    // that need different blocks can't both be stopped, and the defender wins.
+    private boolean stillAttacked(int a) {
+        int d = 1 - a;
+        if (fours[d].size == 0) return attack(a, 0);
+        int block = emptyCell(fours[d].items[0]);
+        for (int i = 1; i < fours[d].size; i++) {
+            if (emptyCell(fours[d].items[i]) != block) return false;
+        }
+        play(block, a);
+        boolean attacked = attack(a, 0);
+        undo(block, a);
+        return attacked;
+    }
+
+    // The move to play if player can force a win, or must play one move to stop a forced loss;
+    // null when threats don't decide the position (search normally then)
+    public static SearchResult check(MnkBoard board, char player, long nodeBudget) {
+        ThreatSearch threats = new ThreatSearch(board, nodeBudget);
+        int win = threats.findWin(player);
+        if (win >= 0) {
+            int plies = threats.winPlies();
+            return new SearchResult(win, IterativeSearch.WIN_SCORE - plies, plies, threats.nodes(), true);
+        }
+        int defense = threats.findDefense(player);
+        if (defense >= 0) return new SearchResult(defense, 0, threats.winPlies(), threats.nodes(), true);
+        return null;
+    }
+
+    // Attacker a to move. True if it has a VCF; line then holds the attacking moves from ply on.
+    private boolean attack(int a, int ply) {
+        if (++nodes > nodeBudget) {
+            stopped = true;
+            return false;
+        }
+        int d = 1 - a;
+        if (fours[a].size > 0) {
+            line[ply] = emptyCell(fours[a].items[0]);
+            finishLine(ply + 1, 2 * ply + 1);
+            return true;
+        }
+        long key = hash ^ (a == 0 ? 0 : -1L);
+        int slot = (int) (key ^ (key >>> 32)) & (FAILED_TABLE_SIZE - 1);
+        if (failed[slot] == key) return false;
+
+        // A four of the defender's has to be blocked, and the block has to be a four of ours
+        int forced = -1;
+        if (fours[d].size > 0) {
+            forced = emptyCell(fours[d].items[0]);
+            for (int i = 1; i < fours[d].size; i++) {
+                if (emptyCell(fours[d].items[i]) != forced) return false;
+            }
+        }
+
+        int[] candidates = collectThreeCells(a, ply);
+        for (int i = 1; i <= candidates[0] && !stopped; i++) {
+            int move = candidates[i];
+            if (forced >= 0 && move != forced) continue;
+            if (cells[move] != 0) continue;
+            play(move, a);
+            // Where the new fours can be completed: two different cells can't both be blocked
+            int block = -1;
+            boolean doubleThreat = false;
+            for (int j = 0; j < fours[a].size; j++) {
+                int cell = emptyCell(fours[a].items[j]);
+                if (block < 0) {
+                    block = cell;
+                } else if (cell != block) {
+                    doubleThreat = true;
+                    break;
+                }
+            }
+            boolean wins = false;
+            if (doubleThreat) {
+                line[ply] = move;
+                line[ply + 1] = block;
+                finishLine(ply + 2, 2 * ply + 3);
+                wins = true;
+            } else if (block >= 0) {
+                boolean defenderWon = play(block, d);
+                if (!defenderWon) {
+                    line[ply] = move;
+                    wins = attack(a, ply + 1);
+                }
+                undo(block, d);
+            }
+            undo(move, a);
+            if (wins) return true;
+        }
+        if (!stopped) failed[slot] = key;
+        return false;
+    }
+
+    private void finishLine(int length, int plies) {
+        if (lineLength == 0) {
+            lineLength = length;
+            winPlies = plies;
+        }
+    }
+
+    // Distinct empty cells of side's threes, as {count, cells...}, in this ply's buffer
+    private int[] collectThreeCells(int side, int ply) {
+        int[] buffer = ply < candidatesByPly.length ? candidatesByPly[ply] : null;
+        if (buffer == null) {
+            buffer = new int[cells.length + 1];
+            if (ply < candidatesByPly.length) candidatesByPly[ply] = buffer;
+        }
+        int count = 0;
+        mark++;
+        WindowSet set = threes[side];
+        for (int i = 0; i < set.size; i++) {
+            int base = set.items[i] * k;
+            for (int j = 0; j < k; j++) {
+                int cell = windowCells[base + j];
+                if (cells[cell] == 0 && marks[cell] != mark) {
+                    marks[cell] = mark;
+                    buffer[++count] = cell;
+                }
+            }
+        }
+        buffer[0] = count;
+        return buffer;
+    }
+
+    private int emptyCell(int window) {
+        int base = window * k;
+        for (int j = 0; j < k; j++) {
+            int cell = windowCells[base + j];
+            if (cells[cell] == 0) return cell;
+        }
+        return -1;
+    }
+
+    // Places a stone of side on cell; true if it completes a line
+    private boolean play(int cell, int side) {
+        cells[cell] = (byte) (side + 1);
+        hash ^= zobristKey(cell, side);
+        boolean won = false;
+        int[] own = counts[side];
+        for (int i = cellWindowStart[cell]; i < cellWindowStart[cell + 1]; i++) {
+            int w = cellWindows[i];
+            unlink(w);
+            if (++own[w] == k && counts[1 - side][w] == 0) won = true;
+            link(w);
+        }
+        return won;
+    }
+
+    private void undo(int cell, int side) {
+        cells[cell] = 0;
+        hash ^= zobristKey(cell, side);
+        int[] own = counts[side];
+        for (int i = cellWindowStart[cell]; i < cellWindowStart[cell + 1]; i++) {
+            int w = cellWindows[i];
+            unlink(w);
+            own[w]--;
+            link(w);
+        }
+    }
+
+    private void link(int w) {
+        for (int side = 0; side < 2; side++) {
+            if (counts[1 - side][w] != 0) continue;
+            int own = counts[side][w];
+            if (own == k - 1) fours[side].add(w);
+            else if (own == k - 2) threes[side].add(w);
+        }
+    }
+
+    private void unlink(int w) {
+        for (int side = 0; side < 2; side++) {
+            fours[side].remove(w);
+            threes[side].remove(w);
+        }
+    }
+
+    private static int side(char player) {
+        return player == 'X' ? 0 : 1;
+    }
+
+    private static long zobristKey(int cell, int side) {
+        // Bigger boards share keys between cells; a collision in the failed table can only hide a VCF, never invent one
+        return ZOBRIST[((cell % MAX_ZOBRIST_CELLS) << 1) | side] * (1 + cell / MAX_ZOBRIST_CELLS);
+    }
+
+    private static long[] zobrist() {
+        SplittableRandom random = new SplittableRandom(0x7EA7L);
+        long[] keys = new long[MAX_ZOBRIST_CELLS * 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        return keys;
+    }
+
+    // Set of window ids with O(1) add, remove and iteration
+    private static final class WindowSet {
+        final int[] items;
+        final int[] positions;
+        int size;
+
+        WindowSet(int capacity) {
+            items = new int[capacity];
+            positions = new int[capacity];
+            Arrays.fill(positions, -1);
+        }
+
+        void add(int w) {
+            positions[w] = size;
+            items[size++] = w;
+        }
+
+        void remove(int w) {
+            int position = positions[w];
+            if (position < 0) return;
+            int last = items[--size];
+            items[position] = last;
+            positions[last] = position;
+            positions[w] = -1;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package tictactoe;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// Console game, plus an engine mode so scripts and tournament managers can
+// drive games through stdin and stdout.
+//
+//   java tictactoe.Tic [rows cols k]             two players at the console (default 3 3 3)
+//   java tictactoe.Tic --engine [rows cols k]    line protocol below
+//
+// Engine protocol, one reply line per command (board prints its rows first):
+//   newgame [rows cols k]                  -> ok              same size as before when omitted; at most 50x50
+//   position startpos|<cells> [moves <cell>...]
+//                                          -> ok              cells row by row as X, O and .;
+//                                                             X moves first, so the counts say who is to move
+//   play <cell>...                         -> ok next|win X|win O|draw   after the last one
+//   go [easy|medium|hard|mcts] [movetime <ms>] [nodes <n>]
+//                                          -> bestmove <cell> score <s> depth <d> nodes <n>
+//                                             or bestmove none when the game is over
+//   board                                  -> the board, then ok
+//   isready                                -> readyok
+//   quit
+// Anything else gets error <reason> and leaves the game as it was. Cells are
+// row * cols + col. go defaults to hard with a 1000 ms budget (0 is unlimited).
+// Replies are buffered and only flushed once no more input is waiting, so a
+// harness that pipelines whole games gets them back in a few writes.
+public class Tic {
+    static final long DEFAULT_MOVE_MILLIS = 1000;
+
+    private MnkBoard board;
+    private char player = 'X';
+    private boolean gameOver;
+
+    Tic(int rows, int columns, int k) {
+        board = new MnkBoard(rows, columns, k);
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean engine = args.length > 0 && args[0].equals("--engine");
+        int first = engine ? 1 : 0;
+        // optional arguments: rows columns k (defaults to 3 3 3)
+        int rows = args.length >= first + 3 ? Integer.parseInt(args[first]) : 3;
+        int columns = args.length >= first + 3 ? Integer.parseInt(args[first + 1]) : 3;
+        int k = args.length >= first + 3 ? Integer.parseInt(args[first + 2]) : 3;
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII));
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII), 1 << 16);
+        Tic tic = new Tic(rows, columns, k);
+        if (engine) {
+            tic.runEngine(in, out);
+        } else {
+            tic.runConsole(in, out);
+        }
+        out.flush();
+    }
+
+    void runConsole(BufferedReader in, Writer out) throws IOException {
+        while (!gameOver) {
+            out.write(printBoard(board));
+            out.write("Player " + player + " enter row and column: ");
+            out.flush();
+            String line = in.readLine();
+            if (line == null) return;
+
+            int row;
+            int column;
+            String[] words = line.trim().split("\\s+");
+            try {
+                row = Integer.parseInt(words[0]);
+                column = Integer.parseInt(words[1]);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                out.write("Enter two numbers, row then column\n");
+                continue;
+            }
+
+            // check whether the space is on the board and empty, only then is it a valid move
+            if (!board.inBounds(row, column) || !board.isEmpty(row, column)) {
+                out.write("Invalid move\n");
+                continue;
+            }
+            board.place(row, column, player);
+            if (haveWon(board, row, column)) {
+                gameOver = true;
+                out.write(printBoard(board));
+                out.write("Player " + player + " has won\n");
+            } else if (board.isFull()) {
+                gameOver = true;
+                out.write(printBoard(board));
+                out.write("Draw\n");
+            } else {
+                player = (player == 'X') ? 'O' : 'X';
+            }
+        }
+    }
+
+    void runEngine(BufferedReader in, Writer out) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] words = line.trim().split("\\s+");
+            if (words[0].equals("quit")) break;
+            if (words[0].isEmpty()) continue;
+            out.write(respond(words));
+            out.write('\n');
+            // Only flush once the harness has nothing more pipelined
+            if (!in.ready()) out.flush();
+        }
+    }
+
+    String respond(String[] words) {
+        try {
+            switch (words[0]) {
+                case "newgame": return newGame(words);
+                case "position": return position(words);
+                case "play": return play(words, 1);
+                case "go": return go(words);
+                case "board": return printBoard(board) + "ok";
+                case "isready": return "readyok";
+                default: return "error unknown command " + words[0];
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return "error " + (e.getMessage() != null ? e.getMessage() : "bad command");
+        }
+    }
+
+    private String newGame(String[] words) {
+        if (words.length >= 4) {
+            int rows = Integer.parseInt(words[1]);
+            int columns = Integer.parseInt(words[2]);
+            int k = Integer.parseInt(words[3]);
+            if (!MnkBoard.isSupported(rows, columns, k)) {
+                throw new IllegalArgumentException("bad board size");
+            }
+            board = new MnkBoard(rows, columns, k);
+        } else {
+            board.clear();
+        }
+        player = 'X';
+        gameOver = false;
+        return "ok";
+    }
+
+    // Builds the position on a copy first, so a bad one leaves the current game untouched
+    private String position(String[] words) {
+        MnkBoard next = new MnkBoard(board.rows(), board.cols(), board.k());
+        int xCount = 0;
+        int oCount = 0;
+        if (!words[1].equals("startpos")) {
+            String cells = words[1];
+            if (cells.length() != next.cellCount()) throw new IllegalArgumentException("position needs " + next.cellCount() + " cells");
+            for (int cell = 0; cell < cells.length(); cell++) {
+                char c = Character.toUpperCase(cells.charAt(cell));
+                if (c == 'X') xCount++;
+                else if (c == 'O') oCount++;
+                else if (c != '.') throw new IllegalArgumentException("bad cell " + cells.charAt(cell));
+                if (c != '.') next.play(cell, c);
+            }
+            if (xCount != oCount && xCount != oCount + 1) throw new IllegalArgumentException("bad piece counts");
+        }
+        boolean over = next.isFull() || hasLine(next);
+        MnkBoard previous = board;
+        char previousPlayer = player;
+        boolean previousOver = gameOver;
+        board = next;
+        player = xCount == oCount ? 'X' : 'O';
+        gameOver = over;
+        if (words.length > 2) {
+            if (!words[2].equals("moves")) throw new IllegalArgumentException("expected moves");
+            try {
+                play(words, 3);
+            } catch (IllegalArgumentException e) {
+                board = previous;
+                player = previousPlayer;
+                gameOver = previousOver;
+                throw e;
+            }
+        }
+        return "ok";
+    }
+
+    // Plays words[first..] in turn; an illegal one is reported and takes back the ones before it
+    private String play(String[] words, int first) {
+        MnkBoard previous = new MnkBoard(board);
+        char previousPlayer = player;
+        boolean previousOver = gameOver;
+        try {
+            return playAll(words, first);
+        } catch (IllegalArgumentException e) {
+            board = previous;
+            player = previousPlayer;
+            gameOver = previousOver;
+            throw e;
+        }
+    }
+
+    private String playAll(String[] words, int first) {
+        String result = "next";
+        for (int i = first; i < words.length; i++) {
+            int cell = Integer.parseInt(words[i]);
+            if (gameOver) throw new IllegalArgumentException("game over");
+            if (cell < 0 || cell >= board.cellCount() || !board.isEmpty(cell)) {
+                throw new IllegalArgumentException("illegal move " + cell);
+            }
+            board.play(cell, player);
+            if (board.winningCells(cell) != null) {
+                gameOver = true;
+                result = "win " + player;
+            } else if (board.isFull()) {
+                gameOver = true;
+                result = "draw";
+            } else {
+                player = (player == 'X') ? 'O' : 'X';
+                result = "next";
+            }
+        }
+        return "ok " + result;
+    }
+
+    private String go(String[] words) {
+        AILevel level = AILevel.HARD;
+        long moveMillis = DEFAULT_MOVE_MILLIS;
+        long nodes = 0;
+        for (int i = 1; i < words.length; i++) {
+            switch (words[i]) {
+                case "movetime": moveMillis = Long.parseLong(words[++i]); break;
+                case "nodes": nodes = Long.parseLong(words[++i]); break;
+                default: level = AILevel.valueOf(words[i].toUpperCase());
+            }
+        }
+        if (gameOver) return "bestmove none";
+        SearchResult result = AIService.decide(board, player, level, moveMillis, nodes);
+        if (result.move < 0) return "bestmove none";
+        return "bestmove " + result.move + " score " + result.score + " depth " + result.depth + " nodes " + result.nodes;
+    }
+
+    // Whether any line is complete; a set position can arrive already won
+    private static boolean hasLine(MnkBoard board) {
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            if (!board.isEmpty(cell) && board.winningCells(cell) != null) return true;
+        }
+        return false;
+    }
+
+    public static boolean haveWon(MnkBoard board, int row, int column) {
+        // only the four lines through the last move can have been completed
+        return board.winningCells(board.index(row, column)) != null;
+    }
+
+    // The whole board as one string, so it goes out in a single write
+    public static String printBoard(MnkBoard board) {
+        StringBuilder text = new StringBuilder(board.cellCount() * 4 + board.rows());
+        for (int row = 0; row < board.rows(); row++) {
+            for (int column = 0; column < board.cols(); column++) {
+                text.append(board.get(row, column)).append(" | ");
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,268 @@
+package tictactoe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Round-robin between strategies, with Elo ratings to compare them on one scale.
+//
+//   java tictactoe.Tournament --strategies EASY,MEDIUM,HARD,SEARCH:2000 --games 1000 --seed 42 --board 3,3,3
+//
+// Every pair of strategies plays --games games, alternating colors each game.
+// The games are cut into chunks that run in parallel on the common fork/join
+// pool; like SelfPlay each chunk has its own board and a SplittableRandom
+// from the master seed, so the results only depend on the seed.
+//
+// Ratings are the maximum-likelihood fit of the Elo model (draws count half)
+// to every game, centred so the field averages 0, with 95% error bars from
+// the curvature of the likelihood. One virtual draw per pairing keeps a
+// strategy that never loses (HARD on 3x3) at a finite rating.
+public final class Tournament {
+    private static final int CHUNK_SIZE = 256;
+    private static final double PRIOR_DRAWS = 1;
+    private static final double LOG_BASE = Math.log(10) / 400;
+
+    private final List<Strategy> strategies;
+    private final int rows;
+    private final int cols;
+    private final int k;
+
+    // wins[i][j] counts games i won against j, draws[i][j] == draws[j][i] those drawn
+    final long[][] wins;
+    final long[][] draws;
+
+    Tournament(List<Strategy> strategies, int rows, int cols, int k) {
+        this.strategies = strategies;
+        this.rows = rows;
+        this.cols = cols;
+        this.k = k;
+        this.wins = new long[strategies.size()][strategies.size()];
+        this.draws = new long[strategies.size()][strategies.size()];
+    }
+
+    void run(long gamesPerPairing, long seed) {
+        int n = strategies.size();
+        List<int[]> pairings = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                pairings.add(new int[]{i, j});
+            }
+        }
+        int chunksPerPairing = (int) ((gamesPerPairing + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        int tasks = pairings.size() * chunksPerPairing;
+        long[] chunkSeeds = new long[tasks];
+        SplittableRandom master = new SplittableRandom(seed);
+        for (int t = 0; t < tasks; t++) {
+            chunkSeeds[t] = master.nextLong();
+        }
+        long[][] results = IntStream.range(0, tasks).parallel().mapToObj(t -> {
+            int[] pairing = pairings.get(t / chunksPerPairing);
+            long from = (long) (t % chunksPerPairing) * CHUNK_SIZE;
+            return playChunk(pairing[0], pairing[1], from, Math.min(gamesPerPairing, from + CHUNK_SIZE), chunkSeeds[t]);
+        }).toArray(long[][]::new);
+
+        for (int t = 0; t < tasks; t++) {
+            int i = pairings.get(t / chunksPerPairing)[0];
+            int j = pairings.get(t / chunksPerPairing)[1];
+            wins[i][j] += results[t][0];
+            draws[i][j] += results[t][1];
+            draws[j][i] += results[t][1];
+            wins[j][i] += results[t][2];
+        }
+    }
+
+    // Returns {a wins, draws, b wins}; a plays X in the even games
+    private long[] playChunk(int a, int b, long from, long to, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        MnkBoard board = new MnkBoard(rows, cols, k);
+        long[] tally = new long[3];
+        for (long game = from; game < to; game++) {
+            boolean aIsX = (game & 1) == 0;
+            Strategy x = strategies.get(aIsX ? a : b);
+            Strategy o = strategies.get(aIsX ? b : a);
+            char winner = SelfPlay.playGame(board, x, o, random, null);
+            if (winner == ' ') {
+                tally[1]++;
+            } else if ((winner == 'X') == aIsX) {
+                tally[0]++;
+            } else {
+                tally[2]++;
+            }
+        }
+        return tally;
+    }
+
+    // Elo ratings and their standard errors, as {ratings, errors}
+    double[][] ratings() {
+        int n = strategies.size();
+        double[][] games = new double[n][n];
+        double[][] points = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i == j) continue;
+                games[i][j] = wins[i][j] + draws[i][j] + wins[j][i] + PRIOR_DRAWS;
+                points[i][j] = wins[i][j] + (draws[i][j] + PRIOR_DRAWS) / 2;
+            }
+        }
+
+        // Newton's method on the log-likelihood, which is concave; the ratings are only
+        // fixed up to a constant, so the mean is pinned to 0 by adding J/n to the curvature
+        double[] rating = new double[n];
+        double[][] covariance = null;
+        for (int iteration = 0; iteration < 100; iteration++) {
+            double[] gradient = new double[n];
+            double[][] curvature = new double[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (i == j) continue;
+                    double expected = 1 / (1 + Math.pow(10, (rating[j] - rating[i]) / 400));
+                    double weight = LOG_BASE * LOG_BASE * games[i][j] * expected * (1 - expected);
+                    gradient[i] += LOG_BASE * (points[i][j] - games[i][j] * expected);
+                    curvature[i][i] += weight;
+                    curvature[i][j] -= weight;
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    curvature[i][j] += 1.0 / n;
+                }
+            }
+            covariance = invert(curvature);
+            double largestStep = 0;
+            for (int i = 0; i < n; i++) {
+                double step = 0;
+                for (int j = 0; j < n; j++) {
+                    step += covariance[i][j] * gradient[j];
+                }
+                // Damped, so a lopsided first guess can't overshoot
+                step = Math.max(-400, Math.min(400, step));
+                rating[i] += step;
+                largestStep = Math.max(largestStep, Math.abs(step));
+            }
+            if (largestStep < 1e-6) break;
+        }
+
+        double mean = 0;
+        for (double r : rating) mean += r / n;
+        double[] error = new double[n];
+        for (int i = 0; i < n; i++) {
+            rating[i] -= mean;
+            // Inverse of curvature + J/n, minus J/n, is the covariance with the mean held at 0
+            error[i] = Math.sqrt(Math.max(0, covariance[i][i] - 1.0 / n));
+        }
+        return new double[][]{rating, error};
+    }
+
+    // Gauss-Jordan with partial pivoting; the matrices here are a few strategies across
+    private static double[][] invert(double[][] matrix) {
+        int n = matrix.length;
+        double[][] a = new double[n][];
+        double[][] inverse = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            a[i] = matrix[i].clone();
+            inverse[i][i] = 1;
+        }
+        for (int col = 0; col < n; col++) {
+            int pivot = col;
+            for (int row = col + 1; row < n; row++) {
+                if (Math.abs(a[row][col]) > Math.abs(a[pivot][col])) pivot = row;
+            }
+            double[] swap = a[col]; a[col] = a[pivot]; a[pivot] = swap;
+            swap = inverse[col]; inverse[col] = inverse[pivot]; inverse[pivot] = swap;
+            double scale = a[col][col];
+            for (int j = 0; j < n; j++) {
+                a[col][j] /= scale;
+                inverse[col][j] /= scale;
+            }
+            for (int row = 0; row < n; row++) {
+                if (row == col) continue;
+                double factor = a[row][col];
+                for (int j = 0; j < n; j++) {
+                    a[row][j] -= factor * a[col][j];
+                    inverse[row][j] -= factor * inverse[col][j];
+                }
+            }
+        }
+        return inverse;
+    }
+
+    private void report(long gamesPerPairing, long seed, double seconds) {
+        int n = strategies.size();
+        double[][] fit = ratings();
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (p, q) -> Double.compare(fit[0][q], fit[0][p]));
+
+        long totalGames = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) totalGames += wins[i][j] + draws[i][j] + wins[j][i];
+        }
+        System.out.printf("Round robin on %dx%d (k=%d), %,d games per pairing, seed %d, %d threads: %,d games in %.2f s%n",
+            rows, cols, k, gamesPerPairing, seed, Runtime.getRuntime().availableProcessors(), totalGames, seconds);
+        System.out.println();
+        System.out.printf("%4s  %-14s %7s %7s %9s %7s%n", "Rank", "Strategy", "Elo", "95%", "Games", "Score");
+        for (int rank = 0; rank < n; rank++) {
+            int i = order[rank];
+            long played = 0;
+            double score = 0;
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                played += wins[i][j] + draws[i][j] + wins[j][i];
+                score += wins[i][j] + draws[i][j] / 2.0;
+            }
+            System.out.printf("%4d  %-14s %7.0f %7s %,9d %6.1f%%%n", rank + 1, strategies.get(i).name(),
+                fit[0][i], String.format("+-%.0f", 1.96 * fit[1][i]), played, played == 0 ? 0 : 100 * score / played);
+        }
+
+        System.out.println();
+        System.out.println("Score of each row against each column:");
+        StringBuilder header = new StringBuilder(String.format("%-14s", ""));
+        for (int q : order) header.append(String.format(" %14s", strategies.get(q).name()));
+        System.out.println(header);
+        for (int p : order) {
+            StringBuilder line = new StringBuilder(String.format("%-14s", strategies.get(p).name()));
+            for (int q : order) {
+                long played = wins[p][q] + draws[p][q] + wins[q][p];
+                line.append(p == q || played == 0 ? String.format(" %14s", "-")
+                    : String.format(" %13.1f%%", 100 * (wins[p][q] + draws[p][q] / 2.0) / played));
+            }
+            System.out.println(line);
+        }
+    }
+
+    public static void main(String[] args) {
+        String names = "EASY,MEDIUM,HARD,SEARCH:200";
+        long games = 1000;
+        long seed = 42;
+        int[] geometry = {3, 3, 3};
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--strategies": names = args[++i]; break;
+                case "--games": games = Long.parseLong(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--board":
+                    String[] parts = args[++i].split(",");
+                    for (int j = 0; j < 3; j++) geometry[j] = Integer.parseInt(parts[j].trim());
+                    break;
+                default:
+                    System.out.println("Usage: java tictactoe.Tournament [--strategies A,B,...] [--games N] [--seed S] [--board rows,cols,k]");
+                    return;
+            }
+        }
+
+        List<Strategy> strategies = new ArrayList<>();
+        for (String name : names.split(",")) {
+            strategies.add(Strategies.parse(name));
+        }
+        if (strategies.size() < 2) {
+            System.out.println("A tournament needs at least two strategies");
+            return;
+        }
+        Tournament tournament = new Tournament(strategies, geometry[0], geometry[1], geometry[2]);
+        long start = System.nanoTime();
+        tournament.run(games, seed);
+        tournament.report(games, seed, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,113 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Fixed-size table of search results, keyed by Zobrist hash, that any number
+// of threads probe and store into at once without locks.
+//
+// Each entry is two longs side by side in one array: the data word (score,
+// depth, bound and best move packed together) and the key XORed with it. They
+// are written with plain stores, so two threads storing into the same slot
+// can interleave and leave one's key next to the other's data; the probe
+// recomputes key ^ data, finds it doesn't match, and treats the slot as
+// empty. A torn entry costs a miss, never a wrong score. Nothing is allocated
+// per entry, and a slot is overwritten unless it holds a deeper result for
+// the same position.
+public final class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER = 1;
+    public static final int UPPER = 2;
+
+    // probe() result for a slot that is empty, torn or holds another position
+    public static final long MISS = 0;
+
+    private static final int MAX_ZOBRIST_CELLS = 4096;
+    private static final long[] ZOBRIST = zobrist();
+
+    // Data word: score in the low 32 bits, then move + 1 (16), depth (8), bound (2) and a bit that is never 0
+    private static final int MOVE_SHIFT = 32;
+    private static final int DEPTH_SHIFT = 48;
+    private static final int BOUND_SHIFT = 56;
+    private static final long PRESENT = 1L << 63;
+    private static final int MAX_MOVE = 0xFFFE;
+
+    private final long[] entries;
+    private final int mask;
+
+    // slots is rounded up to a power of two; each slot is 16 bytes
+    public TranspositionTable(int slots) {
+        int size = Integer.highestOneBit(Math.max(2, slots) - 1) << 1;
+        this.entries = new long[size * 2];
+        this.mask = size - 1;
+    }
+
+    public int slots() {
+        return mask + 1;
+    }
+
+    // The hash of board as it stands; play and undo then XOR in zobrist(cell, player).
+    // The geometry is hashed in too, so searches on boards of different shapes can share a table.
+    public static long hash(MnkBoard board) {
+        long hash = ((long) board.rows() * 0x9E3779B97F4A7C15L) ^ ((long) board.cols() * 0xC2B2AE3D27D4EB4FL)
+            ^ ((long) board.k() * 0x165667B19E3779F9L);
+        for (int cell = 0; cell < board.cellCount(); cell++) {
+            if (!board.isEmpty(cell)) hash ^= zobrist(cell, board.get(cell));
+        }
+        return hash;
+    }
+
+    public static long zobrist(int cell, char player) {
+        // Bigger boards share keys between cells; a collision could only cost a wrong cutoff, rarely
+        int side = player == 'X' ? 0 : 1;
+        return ZOBRIST[((cell % MAX_ZOBRIST_CELLS) << 1) | side] * (1 + cell / MAX_ZOBRIST_CELLS);
+    }
+
+    // The data word stored for key, or MISS
+    public long probe(long key) {
+        int slot = ((int) key & mask) << 1;
+        long data = entries[slot + 1];
+        long check = entries[slot];
+        return (check ^ data) == key ? data : MISS;
+    }
+
+    // move is -1 if there is none worth keeping
+    public void store(long key, int move, int score, int depth, int bound) {
+        int slot = ((int) key & mask) << 1;
+        long old = entries[slot + 1];
+        if ((entries[slot] ^ old) == key && depth(old) > depth) return;
+        long data = PRESENT | ((long) bound << BOUND_SHIFT) | ((long) Math.min(depth, 0xFF) << DEPTH_SHIFT)
+            | ((long) (move >= 0 && move <= MAX_MOVE ? move + 1 : 0) << MOVE_SHIFT) | (score & 0xFFFFFFFFL);
+        entries[slot] = key ^ data;
+        entries[slot + 1] = data;
+    }
+
+    public void clear() {
+        Arrays.fill(entries, 0);
+    }
+
+    public static int score(long data) {
+        return (int) data;
+    }
+
+    public static int move(long data) {
+        return (int) ((data >>> MOVE_SHIFT) & 0xFFFF) - 1;
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> BOUND_SHIFT) & 0x3);
+    }
+
+    private static long[] zobrist() {
+        SplittableRandom random = new SplittableRandom(0x5EA2C4L);
+        long[] keys = new long[MAX_ZOBRIST_CELLS * 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        return keys;
+    }
+}